@@ -0,0 +1,84 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import net.shadew.asm.descriptor.Descriptor;
+import net.shadew.asm.descriptor.TypeDescriptor;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsmBridgeBenchmark {
+    private Type[] methodTypes;
+    private Type[] fieldTypes;
+    private Descriptor[] methods;
+    private TypeDescriptor[] fields;
+
+    @Setup
+    public void setup() {
+        DescriptorCorpus corpus = DescriptorCorpus.get();
+        methodTypes = new Type[corpus.methodDescriptors.length];
+        methods = new Descriptor[methodTypes.length];
+        for (int i = 0; i < methodTypes.length; i++) {
+            methodTypes[i] = Type.getMethodType(corpus.methodDescriptors[i]);
+            methods[i] = Descriptor.parse(corpus.methodDescriptors[i]);
+        }
+        fieldTypes = new Type[corpus.fieldDescriptors.length];
+        fields = new TypeDescriptor[fieldTypes.length];
+        for (int i = 0; i < fieldTypes.length; i++) {
+            fieldTypes[i] = Type.getType(corpus.fieldDescriptors[i]);
+            fields[i] = TypeDescriptor.parse(corpus.fieldDescriptors[i]);
+        }
+    }
+
+    @Benchmark
+    public void fromAsmMethod(Blackhole bh) {
+        for (Type type : methodTypes) {
+            bh.consume(Descriptor.asm(type));
+        }
+    }
+
+    @Benchmark
+    public void fromAsmType(Blackhole bh) {
+        for (Type type : fieldTypes) {
+            bh.consume(Descriptor.asm(type));
+        }
+    }
+
+    @Benchmark
+    public void toAsmMethod(Blackhole bh) {
+        for (Descriptor desc : methods) {
+            bh.consume(desc.toAsm());
+        }
+    }
+
+    @Benchmark
+    public void toAsmType(Blackhole bh) {
+        for (TypeDescriptor desc : fields) {
+            bh.consume(desc.toAsm());
+        }
+    }
+
+    @Benchmark
+    public void asmGetMethodType(Blackhole bh) {
+        for (Type type : methodTypes) {
+            bh.consume(Type.getMethodType(type.getDescriptor()));
+        }
+    }
+}
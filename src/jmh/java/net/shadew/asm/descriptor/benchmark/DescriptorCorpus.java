@@ -0,0 +1,162 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Realistic benchmark input: the field and method descriptors and class names found in the class files of the running
+ * JDK, in a fixed order so that runs are comparable.
+ */
+final class DescriptorCorpus {
+    private static final int MAX_CLASSES = 2000;
+    private static final String[] PACKAGES = {"java/lang/", "java/util/", "java/io/", "java/nio/"};
+
+    private static DescriptorCorpus instance;
+
+    final String[] methodDescriptors;
+    final String[] fieldDescriptors;
+    final String[] internalNames;
+
+    private DescriptorCorpus(Set<String> methods, Set<String> fields, Set<String> names) {
+        this.methodDescriptors = methods.toArray(new String[0]);
+        this.fieldDescriptors = fields.toArray(new String[0]);
+        this.internalNames = names.toArray(new String[0]);
+    }
+
+    static synchronized DescriptorCorpus get() {
+        if (instance == null) {
+            try {
+                instance = load();
+            } catch (IOException exc) {
+                throw new UncheckedIOException(exc);
+            }
+        }
+        return instance;
+    }
+
+    private static DescriptorCorpus load() throws IOException {
+        Set<String> methods = new LinkedHashSet<>();
+        Set<String> fields = new LinkedHashSet<>();
+        Set<String> names = new LinkedHashSet<>();
+
+        for (byte[] cls : classFiles()) {
+            // The ASM version we build against rejects class files newer than Java 14. The parts we read have not
+            // changed since, so pretend it is a Java 14 class file.
+            if (cls[7] > Opcodes.V14) {
+                cls[6] = 0;
+                cls[7] = Opcodes.V14;
+            }
+            new ClassReader(cls).accept(new ClassVisitor(Opcodes.ASM8) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    names.add(name);
+                }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    fields.add(descriptor);
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    methods.add(descriptor);
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        }
+        return new DescriptorCorpus(methods, fields, names);
+    }
+
+    private static List<byte[]> classFiles() throws IOException {
+        Path rtJar = Paths.get(System.getProperty("java.home"), "lib", "rt.jar");
+        if (Files.exists(rtJar)) {
+            return fromJar(rtJar);
+        }
+        return fromRuntimeImage();
+    }
+
+    // Java 8 and below
+    private static List<byte[]> fromJar(Path jar) throws IOException {
+        List<byte[]> out = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            List<ZipEntry> entries = Collections.list(zip.entries())
+                                                .stream()
+                                                .filter(entry -> isCorpusClass(entry.getName()))
+                                                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                                                .limit(MAX_CLASSES)
+                                                .collect(Collectors.toList());
+            for (ZipEntry entry : entries) {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    out.add(readAll(in));
+                }
+            }
+        }
+        return out;
+    }
+
+    // Java 9 and above
+    private static List<byte[]> fromRuntimeImage() throws IOException {
+        FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        Path base = jrt.getPath("modules", "java.base");
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(base)) {
+            paths = stream.filter(path -> isCorpusClass(base.relativize(path).toString()))
+                          .sorted()
+                          .limit(MAX_CLASSES)
+                          .collect(Collectors.toList());
+        }
+        List<byte[]> out = new ArrayList<>();
+        for (Path path : paths) {
+            out.add(Files.readAllBytes(path));
+        }
+        return out;
+    }
+
+    private static boolean isCorpusClass(String name) {
+        if (!name.endsWith(".class")) return false;
+        for (String pkg : PACKAGES) {
+            if (name.startsWith(pkg)) return true;
+        }
+        return false;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        byte[] buf = new byte[8192];
+        int len = 0;
+        int read;
+        while ((read = in.read(buf, len, buf.length - len)) != -1) {
+            len += read;
+            if (len == buf.length) {
+                byte[] grown = new byte[buf.length * 2];
+                System.arraycopy(buf, 0, grown, 0, len);
+                buf = grown;
+            }
+        }
+        byte[] out = new byte[len];
+        System.arraycopy(buf, 0, out, 0, len);
+        return out;
+    }
+}
@@ -0,0 +1,96 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import net.shadew.asm.descriptor.InternalNameUtil;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InternalNameBenchmark {
+    private String[] names;
+
+    @Setup
+    public void setup() {
+        names = DescriptorCorpus.get().internalNames;
+    }
+
+    @Benchmark
+    public void packageName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.packageName(name));
+        }
+    }
+
+    @Benchmark
+    public void simpleName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.simpleName(name));
+        }
+    }
+
+    @Benchmark
+    public void rootClass(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.rootClass(name));
+        }
+    }
+
+    @Benchmark
+    public void isAnonymous(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.isAnonymous(name));
+        }
+    }
+
+    @Benchmark
+    public void toCode(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.toCode(name));
+        }
+    }
+
+    @Benchmark
+    public void asmClassName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(Type.getObjectType(name).getClassName());
+        }
+    }
+
+    @Benchmark
+    public void inPackage(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.inPackage(name, "java/util"));
+        }
+    }
+
+    @Benchmark
+    public void renamePackage(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.renamePackage(name, "java/util", "shaded/java/util"));
+        }
+    }
+
+    @Benchmark
+    public void renameClass(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InternalNameUtil.renameClass(name, "java/util/HashMap", "shaded/HashMap"));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import net.shadew.asm.descriptor.DescriptorReader;
+import net.shadew.asm.descriptor.MethodDescriptor;
+import net.shadew.asm.descriptor.TypeDescriptor;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    private String[] methods;
+    private String[] fields;
+    private byte[][] methodBytes;
+    private DescriptorReader reader;
+
+    @Setup
+    public void setup() {
+        DescriptorCorpus corpus = DescriptorCorpus.get();
+        methods = corpus.methodDescriptors;
+        fields = corpus.fieldDescriptors;
+        methodBytes = new byte[methods.length][];
+        for (int i = 0; i < methods.length; i++) {
+            methodBytes[i] = methods[i].getBytes(StandardCharsets.UTF_8);
+        }
+        reader = new DescriptorReader();
+    }
+
+    @Benchmark
+    public void parseMethod(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(MethodDescriptor.parse(desc));
+        }
+    }
+
+    @Benchmark
+    public void parseType(Blackhole bh) {
+        for (String desc : fields) {
+            bh.consume(TypeDescriptor.parse(desc));
+        }
+    }
+
+    @Benchmark
+    public void readMethod(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(reader.readMethod(desc, 0, desc.length()));
+            bh.consume(reader.result());
+        }
+    }
+
+    @Benchmark
+    public void readMethodBytes(Blackhole bh) {
+        for (byte[] desc : methodBytes) {
+            bh.consume(reader.readMethod(desc, 0, desc.length));
+            bh.consume(reader.result());
+        }
+    }
+
+    @Benchmark
+    public void skipMethod(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(reader.skipMethod(desc, 0, desc.length()));
+        }
+    }
+
+    @Benchmark
+    public void asmMethodType(Blackhole bh) {
+        for (String desc : methods) {
+            Type type = Type.getMethodType(desc);
+            bh.consume(type.getArgumentTypes());
+            bh.consume(type.getReturnType());
+        }
+    }
+
+    @Benchmark
+    public void asmType(Blackhole bh) {
+        for (String desc : fields) {
+            bh.consume(Type.getType(desc));
+        }
+    }
+}
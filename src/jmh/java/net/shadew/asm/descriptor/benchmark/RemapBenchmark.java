@@ -0,0 +1,101 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.commons.Remapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import net.shadew.asm.descriptor.Descriptor;
+import net.shadew.asm.descriptor.Mapper;
+import net.shadew.asm.descriptor.MethodDescriptor;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemapBenchmark {
+    private static final Mapper IDENTITY = name -> name;
+    private static final Mapper RENAMING = name -> name.startsWith("java/util/") ? "shaded/" + name : name;
+
+    private static final Remapper ASM_IDENTITY = new Remapper() {
+    };
+    private static final Remapper ASM_RENAMING = new Remapper() {
+        @Override
+        public String map(String internalName) {
+            return RENAMING.remap(internalName);
+        }
+    };
+
+    private String[] methods;
+    private MethodDescriptor[] parsed;
+
+    @Setup
+    public void setup() {
+        methods = DescriptorCorpus.get().methodDescriptors;
+        parsed = new MethodDescriptor[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            parsed[i] = MethodDescriptor.parse(methods[i]);
+        }
+    }
+
+    @Benchmark
+    public void remapIdentity(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(desc.remap(IDENTITY));
+        }
+    }
+
+    @Benchmark
+    public void remapRenaming(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(desc.remap(RENAMING));
+        }
+    }
+
+    @Benchmark
+    public void parseRemapToString(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(MethodDescriptor.parse(desc).remap(RENAMING).toString());
+        }
+    }
+
+    @Benchmark
+    public void remapDescriptorIdentity(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(Descriptor.remapDescriptor(desc, IDENTITY));
+        }
+    }
+
+    @Benchmark
+    public void remapDescriptorRenaming(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(Descriptor.remapDescriptor(desc, RENAMING));
+        }
+    }
+
+    @Benchmark
+    public void asmRemapIdentity(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(ASM_IDENTITY.mapMethodDesc(desc));
+        }
+    }
+
+    @Benchmark
+    public void asmRemapRenaming(Blackhole bh) {
+        for (String desc : methods) {
+            bh.consume(ASM_RENAMING.mapMethodDesc(desc));
+        }
+    }
+}
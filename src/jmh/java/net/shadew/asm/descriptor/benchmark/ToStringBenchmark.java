@@ -0,0 +1,82 @@
+package net.shadew.asm.descriptor.benchmark;
+
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import net.shadew.asm.descriptor.MethodDescriptor;
+import net.shadew.asm.descriptor.PrimitiveDescriptor;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToStringBenchmark {
+    private MethodDescriptor[] parsed;
+    private Type[] asm;
+
+    @Setup
+    public void setup() {
+        String[] methods = DescriptorCorpus.get().methodDescriptors;
+        parsed = new MethodDescriptor[methods.length];
+        asm = new Type[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            parsed[i] = MethodDescriptor.parse(methods[i]);
+            asm[i] = Type.getMethodType(methods[i]);
+        }
+    }
+
+    @Benchmark
+    public void toStringMemoized(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(desc.toString());
+        }
+    }
+
+    // Freshly built descriptors have nothing memoized yet
+    @Benchmark
+    public void toStringFresh(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(MethodDescriptor.of(desc.returnType(), desc.parameterArray()).toString());
+        }
+    }
+
+    @Benchmark
+    public void toCode(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(desc.toCode());
+        }
+    }
+
+    @Benchmark
+    public void toCodeMember(Blackhole bh) {
+        for (MethodDescriptor desc : parsed) {
+            bh.consume(desc.toCode("method"));
+        }
+    }
+
+    @Benchmark
+    public void asmGetDescriptor(Blackhole bh) {
+        for (Type type : asm) {
+            bh.consume(Type.getMethodDescriptor(type.getReturnType(), type.getArgumentTypes()));
+        }
+    }
+
+    @Benchmark
+    public void voidToString(Blackhole bh) {
+        bh.consume(PrimitiveDescriptor.VOID.toString());
+    }
+}
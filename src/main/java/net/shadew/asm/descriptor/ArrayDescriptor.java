@@ -5,10 +5,21 @@ import org.objectweb.asm.Type;
 import net.shadew.util.contract.Validate;
 
 public final class ArrayDescriptor extends TypeDescriptor {
-    private final TypeDescriptor element;
+    /**
+     * The maximum number of dimensions of an array type, as imposed by the JVM.
+     */
+    public static final int MAX_DIMENSIONS = 255;
 
-    ArrayDescriptor(TypeDescriptor element) {
-        this.element = element;
+    // Arrays are stored flat, so that dimensions, root, element and equality don't need to walk a chain of arrays
+    private final TypeDescriptor root;
+    private final int dimensions;
+
+    private String string;
+    private Type asm;
+
+    ArrayDescriptor(TypeDescriptor root, int dimensions) {
+        this.root = root;
+        this.dimensions = dimensions;
     }
 
     @Override
@@ -28,33 +39,51 @@ public final class ArrayDescriptor extends TypeDescriptor {
 
     @Override
     public String toString() {
-        return "[" + element.toString();
+        String out = string;
+        if (out == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < dimensions; i++) {
+                builder.append('[');
+            }
+            string = out = builder.append(root.toString()).toString();
+        }
+        return out;
     }
 
     @Override
     public Type toAsm() {
-        return Type.getType(this.toString());
+        Type out = asm;
+        if (out == null) {
+            asm = out = Type.getType(this.toString());
+        }
+        return out;
+    }
+
+    @Override
+    public Class<?> toClass(ClassLoader loader) throws ClassNotFoundException {
+        // Class.forName accepts array descriptors, with dots as package separator
+        return ClassResolver.resolve(toString().replace('/', '.'), loader);
     }
 
     @Override
     public String toCode() {
-        return element.toCode() + "[]";
+        StringBuilder builder = new StringBuilder(root.toCode());
+        for (int i = 0; i < dimensions; i++) {
+            builder.append("[]");
+        }
+        return builder.toString();
     }
 
     public TypeDescriptor element() {
-        return element;
+        return dimensions == 1 ? root : root.arrayType(dimensions - 1);
     }
 
     public TypeDescriptor root() {
-        TypeDescriptor out = element;
-        while (out.isArray())
-            out = out.asArray().element();
-        return out;
+        return root;
     }
 
     public int dimensions() {
-        if (element.isArray()) return 1 + element.asArray().dimensions();
-        return 1;
+        return dimensions;
     }
 
     @Override
@@ -64,7 +93,9 @@ public final class ArrayDescriptor extends TypeDescriptor {
 
     @Override
     public ArrayDescriptor remap(Mapper mapper) {
-        return new ArrayDescriptor(element.remap(mapper));
+        TypeDescriptor mapped = root.remap(mapper);
+        if (mapped == root) return this;
+        return mapped.arrayType(dimensions);
     }
 
     @Override
@@ -73,14 +104,20 @@ public final class ArrayDescriptor extends TypeDescriptor {
         if (o == null || getClass() != o.getClass()) return false;
 
         ArrayDescriptor that = (ArrayDescriptor) o;
-
-        // Compare on dimensions and root to skip some recursion
-        return element.equals(that.element);
+        return dimensions == that.dimensions && root.equals(that.root);
     }
 
     @Override
     public int hashCode() {
-        return element.hashCode() * 31 + 47;
+        return root.hashCode() * 31 + dimensions;
+    }
+
+    static ArrayDescriptor get(TypeDescriptor element, int dimensions) {
+        if (element.isArray()) {
+            ArrayDescriptor array = element.asArray();
+            return array.root.arrayType(array.dimensions + dimensions);
+        }
+        return element.arrayType(dimensions);
     }
 
     public static ArrayDescriptor parse(String desc) {
@@ -90,17 +127,12 @@ public final class ArrayDescriptor extends TypeDescriptor {
 
     public static ArrayDescriptor of(TypeDescriptor element) {
         Validate.notNull(element, "element");
-        return new ArrayDescriptor(element);
+        return get(element, 1);
     }
 
     public static ArrayDescriptor of(TypeDescriptor element, int dimensions) {
         Validate.notNull(element, "element");
         Validate.positive(dimensions, "dimensions");
-
-        ArrayDescriptor out = of(element);
-        while (dimensions-- > 1)
-            out = of(out);
-
-        return out;
+        return get(element, dimensions);
     }
 }
@@ -0,0 +1,70 @@
+package net.shadew.asm.descriptor;
+
+import org.objectweb.asm.commons.Remapper;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Adapts a {@link Mapper} to ASM's {@link Remapper}, so that it can drive a
+ * {@link org.objectweb.asm.commons.ClassRemapper}. Descriptors are remapped through {@link Descriptor#remapDescriptor}
+ * instead of ASM's own descriptor handling. That remapper only accepts the characters of Java identifiers in names, so
+ * descriptors with names that are only legal in the JVM fall back to ASM's non-validating implementation. Field,
+ * method and record component names are mapped by an optional {@link MemberMapper}.
+ */
+public class AsmRemapper extends Remapper {
+    private final Mapper mapper;
+    private final MemberMapper members;
+
+    public AsmRemapper(Mapper mapper) {
+        Validate.notNull(mapper, "mapper");
+        this.mapper = mapper;
+        this.members = null;
+    }
+
+    public AsmRemapper(Mapper mapper, MemberMapper members) {
+        Validate.notNull(mapper, "mapper");
+        Validate.notNull(members, "members");
+        this.mapper = mapper;
+        this.members = members;
+    }
+
+    public Mapper mapper() {
+        return mapper;
+    }
+
+    public MemberMapper members() {
+        return members;
+    }
+
+    @Override
+    public String map(String internalName) {
+        return mapper.remap(internalName);
+    }
+
+    @Override
+    public String mapDesc(String descriptor) {
+        String out = DescriptorRemapper.tryRemap(descriptor, mapper);
+        return out != null ? out : super.mapDesc(descriptor);
+    }
+
+    @Override
+    public String mapMethodDesc(String methodDescriptor) {
+        String out = DescriptorRemapper.tryRemap(methodDescriptor, mapper);
+        return out != null ? out : super.mapMethodDesc(methodDescriptor);
+    }
+
+    @Override
+    public String mapFieldName(String owner, String name, String descriptor) {
+        return members == null ? name : members.mapField(owner, name, descriptor);
+    }
+
+    @Override
+    public String mapRecordComponentName(String owner, String name, String descriptor) {
+        return members == null ? name : members.mapField(owner, name, descriptor);
+    }
+
+    @Override
+    public String mapMethodName(String owner, String name, String descriptor) {
+        return members == null ? name : members.mapMethod(owner, name, descriptor);
+    }
+}
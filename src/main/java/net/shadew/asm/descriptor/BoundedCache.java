@@ -0,0 +1,125 @@
+package net.shadew.asm.descriptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A concurrent cache with an optional size bound. When the bound is exceeded, entries are evicted with a
+ * frequency-aware clock: each entry carries a small saturating hit counter which is decremented when the clock hand
+ * passes it, and only entries whose counter has dropped to zero are evicted.
+ */
+final class BoundedCache<K, V> {
+    private static final int MAX_FREQUENCY = 15;
+
+    private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<K> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    BoundedCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    V get(K key, Function<? super K, ? extends V> loader) {
+        Node<V> node = map.get(key);
+        if (node != null) {
+            node.hit();
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+
+        V value = loader.apply(key);
+        Node<V> prev = map.putIfAbsent(key, new Node<>(value));
+        if (prev != null) {
+            return prev.value;
+        }
+
+        if (maximumSize > 0) {
+            clock.offer(key);
+            if (size.incrementAndGet() > maximumSize) {
+                evict();
+            }
+        } else {
+            size.incrementAndGet();
+        }
+        return value;
+    }
+
+    V getIfPresent(K key) {
+        Node<V> node = map.get(key);
+        if (node != null) {
+            node.hit();
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void evict() {
+        while (size.get() > maximumSize) {
+            K key = clock.poll();
+            if (key == null) return;
+
+            Node<V> node = map.get(key);
+            if (node == null) continue;
+
+            int f = node.frequency;
+            if (f > 0) {
+                node.frequency = f - 1;
+                clock.offer(key);
+            } else if (map.remove(key, node)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    int size() {
+        // Briefly negative when clear removes an entry before its insert was counted
+        return Math.max(size.get(), 0);
+    }
+
+    int maximumSize() {
+        return maximumSize;
+    }
+
+    void clear() {
+        // The clock is cleared first: an entry inserted before this point is removed below, and one inserted after it
+        // gets a fresh clock slot. The size only follows removals that actually happen, so racing inserts can't skew it.
+        clock.clear();
+        for (K key : map.keySet()) {
+            if (map.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class Node<V> {
+        final V value;
+        // Volatile so that the evictor sees hits from other threads; a lost increment does no harm, it's only a hint
+        volatile int frequency;
+
+        Node(V value) {
+            this.value = value;
+        }
+
+        void hit() {
+            // Read first, so that hot entries stop writing once saturated
+            int f = frequency;
+            if (f < MAX_FREQUENCY) frequency = f + 1;
+        }
+    }
+}
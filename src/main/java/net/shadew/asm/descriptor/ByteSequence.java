@@ -0,0 +1,67 @@
+package net.shadew.asm.descriptor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A mutable {@link CharSequence} view over modified UTF-8 bytes, used by {@link DescriptorReader} to parse descriptors
+ * straight from class file data. Valid descriptors only contain ASCII characters, so each byte is exposed as one char;
+ * non-ASCII bytes end up as characters that the reader rejects.
+ */
+final class ByteSequence implements CharSequence {
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int length;
+
+    ByteSequence set(byte[] array) {
+        this.array = array;
+        this.buffer = null;
+        this.length = array.length;
+        return this;
+    }
+
+    ByteSequence set(ByteBuffer buffer) {
+        // Indices into a heap buffer only coincide with indices into its array when the array offset is zero
+        this.array = buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+        this.buffer = buffer;
+        this.length = buffer.limit();
+        return this;
+    }
+
+    void clear() {
+        this.array = null;
+        this.buffer = null;
+        this.length = 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) ((array != null ? array[index] : buffer.get(index)) & 0xFF);
+    }
+
+    String string(int start, int end) {
+        if (array != null) {
+            return new String(array, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) (buffer.get(i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return string(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return string(0, length());
+    }
+}
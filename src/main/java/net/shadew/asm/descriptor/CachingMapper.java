@@ -0,0 +1,47 @@
+package net.shadew.asm.descriptor;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A {@link Mapper} that memoizes the results of another mapper. The cache can be shared by many threads: reads never
+ * lock and writes only contend on the hash bin they touch. Optionally, the cache is bounded in size, in which case
+ * rarely used names are evicted first.
+ */
+public final class CachingMapper implements Mapper {
+    private final Mapper delegate;
+    private final BoundedCache<String, String> cache;
+
+    public CachingMapper(Mapper delegate) {
+        Validate.notNull(delegate, "delegate");
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(0);
+    }
+
+    public CachingMapper(Mapper delegate, int maximumSize) {
+        Validate.notNull(delegate, "delegate");
+        Validate.positive(maximumSize, "maximumSize");
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(maximumSize);
+    }
+
+    @Override
+    public String remap(String internalName) {
+        return cache.get(internalName, delegate::remap);
+    }
+
+    public Mapper delegate() {
+        return delegate;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,15 @@
+package net.shadew.asm.descriptor;
+
+import java.util.Collection;
+
+/**
+ * Supplies the direct supertypes of classes, so that a {@link MemberMapper} can resolve inherited members.
+ */
+@FunctionalInterface
+public interface ClassHierarchy {
+    /**
+     * Returns the internal names of the direct superclass and interfaces of the given class, or an empty collection if
+     * the class is unknown.
+     */
+    Collection<String> supertypes(String internalName);
+}
@@ -0,0 +1,87 @@
+package net.shadew.asm.descriptor;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves binary class names against a class loader, caching the results per loader. Loaders are weakly keyed and
+ * classes are weakly referenced, since a class strongly references its own loader: this way neither the loader nor any
+ * of its classes is kept alive by the cache. The loaders are striped over several locks, and each stripe remembers its
+ * most recently used loader, so that repeated lookups against one loader don't lock at all.
+ */
+final class ClassResolver {
+    private static final int STRIPES = 16;
+
+    // Loaders are spread over stripes by identity, each with its own lock
+    private static final Stripe[] LOADERS = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOADERS[i] = new Stripe();
+        }
+    }
+
+    // The bootstrap loader is represented by null, which WeakHashMap cannot weakly reference
+    private static final Map<String, WeakReference<Class<?>>> BOOTSTRAP = new ConcurrentHashMap<>();
+
+    private ClassResolver() {
+    }
+
+    private static Map<String, WeakReference<Class<?>>> classes(ClassLoader loader) {
+        if (loader == null) {
+            return BOOTSTRAP;
+        }
+        int hash = System.identityHashCode(loader);
+        Stripe stripe = LOADERS[(hash ^ hash >>> 16) & STRIPES - 1];
+
+        // Lock-free when the same loader is resolved against repeatedly, which is the common case
+        LastLoader last = stripe.last;
+        if (last != null && last.get() == loader) {
+            return last.classes;
+        }
+
+        synchronized (stripe) {
+            Map<String, WeakReference<Class<?>>> classes
+                = stripe.computeIfAbsent(loader, k -> new ConcurrentHashMap<>());
+            stripe.last = new LastLoader(loader, classes);
+            return classes;
+        }
+    }
+
+    static Class<?> resolve(String name, ClassLoader loader) throws ClassNotFoundException {
+        Map<String, WeakReference<Class<?>>> classes = classes(loader);
+        WeakReference<Class<?>> ref = classes.get(name);
+        Class<?> cls = ref == null ? null : ref.get();
+        if (cls == null) {
+            cls = Class.forName(name, false, loader);
+            classes.put(name, new WeakReference<>(cls));
+        }
+        return cls;
+    }
+
+    static void clear() {
+        for (Stripe stripe : LOADERS) {
+            synchronized (stripe) {
+                stripe.clear();
+                stripe.last = null;
+            }
+        }
+        BOOTSTRAP.clear();
+    }
+
+    private static final class Stripe extends WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>> {
+        volatile LastLoader last;
+    }
+
+    // The most recently used loader of a stripe, weakly referenced like the keys of the stripe itself
+    private static final class LastLoader extends WeakReference<ClassLoader> {
+        final Map<String, WeakReference<Class<?>>> classes;
+
+        LastLoader(ClassLoader loader, Map<String, WeakReference<Class<?>>> classes) {
+            super(loader);
+            this.classes = classes;
+        }
+    }
+}
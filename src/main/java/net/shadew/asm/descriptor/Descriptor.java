@@ -65,53 +65,45 @@ public abstract class Descriptor {
 
     public static Descriptor parse(String desc) {
         Validate.notNull(desc, "desc");
+        DescriptorCache cache = DescriptorCache.global();
+        if (cache != null) return cache.parse(desc);
         return DescriptorParser.descriptor(desc);
     }
 
+    public static String remapDescriptor(CharSequence desc, Mapper mapper) {
+        Validate.notNull(desc, "desc");
+        Validate.notNull(mapper, "mapper");
+        return DescriptorRemapper.remap(desc, mapper);
+    }
+
     public static Descriptor asm(Type type) {
         Validate.notNull(type, "type");
-        int sort = type.getSort();
-        if (sort == Type.BYTE) {
-            return PrimitiveDescriptor.BYTE;
-        }
-        if (sort == Type.SHORT) {
-            return PrimitiveDescriptor.SHORT;
-        }
-        if (sort == Type.INT) {
-            return PrimitiveDescriptor.INT;
-        }
-        if (sort == Type.LONG) {
-            return PrimitiveDescriptor.LONG;
-        }
-        if (sort == Type.FLOAT) {
-            return PrimitiveDescriptor.FLOAT;
-        }
-        if (sort == Type.DOUBLE) {
-            return PrimitiveDescriptor.DOUBLE;
-        }
-        if (sort == Type.BOOLEAN) {
-            return PrimitiveDescriptor.BOOLEAN;
-        }
-        if (sort == Type.CHAR) {
-            return PrimitiveDescriptor.CHAR;
-        }
-        if (sort == Type.VOID) {
-            return PrimitiveDescriptor.VOID;
-        }
-        if (sort == Type.OBJECT) {
-            return new ReferenceDescriptor(type.getInternalName());
-        }
-        if (sort == Type.ARRAY) {
-            return new ArrayDescriptor(asm(Type.getType(type.getDescriptor().substring(1))).asType());
-        }
-        if (sort == Type.METHOD) {
-            Type[] args = type.getArgumentTypes();
-            TypeDescriptor[] pars = new TypeDescriptor[args.length];
-            for (int i = 0, l = args.length; i < l; i++) {
-                pars[i] = asm(args[i]).asType();
+        return fromAsm(type);
+    }
+
+    static Descriptor fromAsm(Type type) {
+        switch (type.getSort()) {
+            case Type.BYTE: return PrimitiveDescriptor.BYTE;
+            case Type.SHORT: return PrimitiveDescriptor.SHORT;
+            case Type.INT: return PrimitiveDescriptor.INT;
+            case Type.LONG: return PrimitiveDescriptor.LONG;
+            case Type.FLOAT: return PrimitiveDescriptor.FLOAT;
+            case Type.DOUBLE: return PrimitiveDescriptor.DOUBLE;
+            case Type.BOOLEAN: return PrimitiveDescriptor.BOOLEAN;
+            case Type.CHAR: return PrimitiveDescriptor.CHAR;
+            case Type.VOID: return PrimitiveDescriptor.VOID;
+            case Type.OBJECT: return new ReferenceDescriptor(type.getInternalName(), type);
+            case Type.ARRAY: {
+                // Map element type and dimensions directly rather than peeling off one '[' at a time
+                // The result is shared, so the foreign Type is not cached on it
+                TypeDescriptor root = fromAsm(type.getElementType()).asType();
+                return ArrayDescriptor.get(root, type.getDimensions());
+            }
+            case Type.METHOD: {
+                TypeDescriptor[] pars = TypeDescriptor.fromAsm(type.getArgumentTypes());
+                TypeDescriptor ret = fromAsm(type.getReturnType()).asType();
+                return new MethodDescriptor(ret, pars, type);
             }
-            TypeDescriptor ret = asm(type.getReturnType()).asType();
-            return new MethodDescriptor(ret, pars);
         }
         return Validate.illegalState();
     }
@@ -0,0 +1,64 @@
+package net.shadew.asm.descriptor;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A bounded, thread-safe cache of parsed descriptors. A cache can be used directly, or installed globally with
+ * {@link #setGlobal} so that {@link Descriptor#parse}, {@link TypeDescriptor#parse} and {@link MethodDescriptor#parse}
+ * go through it.
+ */
+public final class DescriptorCache {
+    private static volatile DescriptorCache global;
+
+    private final BoundedCache<String, Descriptor> cache;
+
+    public DescriptorCache(int maximumSize) {
+        Validate.positive(maximumSize, "maximumSize");
+        this.cache = new BoundedCache<>(maximumSize);
+    }
+
+    public Descriptor parse(String desc) {
+        Validate.notNull(desc, "desc");
+        return cache.get(desc, DescriptorParser::descriptor);
+    }
+
+    public TypeDescriptor parseType(String desc) {
+        Descriptor out = parse(desc);
+        if (out.isType()) return out.asType();
+
+        // Let the parser report the error
+        return DescriptorParser.type(desc);
+    }
+
+    public MethodDescriptor parseMethod(String desc) {
+        Descriptor out = parse(desc);
+        if (out.isMethod()) return out.asMethod();
+
+        // Let the parser report the error
+        return DescriptorParser.method(desc);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maximumSize() {
+        return cache.maximumSize();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public static DescriptorCache global() {
+        return global;
+    }
+
+    public static void setGlobal(DescriptorCache cache) {
+        global = cache;
+    }
+}
@@ -0,0 +1,131 @@
+package net.shadew.asm.descriptor;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Canonicalizes descriptors so that structurally equal descriptors share one instance. Interned descriptors are only
+ * weakly referenced by the interner and are discarded once nothing else refers to them.
+ */
+public final class DescriptorInterner {
+    private static final DescriptorInterner SHARED = new DescriptorInterner();
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public DescriptorInterner() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <D extends Descriptor> D intern(D desc) {
+        Validate.notNull(desc, "desc");
+        return (D) canonical(desc);
+    }
+
+    public ReferenceDescriptor reference(String internalName) {
+        Validate.notNull(internalName, "internalName");
+        return (ReferenceDescriptor) lookup(new ReferenceDescriptor(internalName));
+    }
+
+    public ArrayDescriptor array(TypeDescriptor element) {
+        Validate.notNull(element, "element");
+        return ArrayDescriptor.get(canonical(element).asType(), 1);
+    }
+
+    public ArrayDescriptor array(TypeDescriptor element, int dimensions) {
+        Validate.notNull(element, "element");
+        Validate.positive(dimensions, "dimensions");
+
+        return ArrayDescriptor.get(canonical(element).asType(), dimensions);
+    }
+
+    public MethodDescriptor method(TypeDescriptor returnType, TypeDescriptor... parameters) {
+        Validate.notNull(parameters, "parameters");
+        return intern(MethodDescriptor.of(returnType, parameters.clone()));
+    }
+
+    public Descriptor parse(String desc) {
+        return intern(Descriptor.parse(desc));
+    }
+
+    public TypeDescriptor parseType(String desc) {
+        return intern(TypeDescriptor.parse(desc));
+    }
+
+    public MethodDescriptor parseMethod(String desc) {
+        return intern(MethodDescriptor.parse(desc));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Descriptor canonical(Descriptor desc) {
+        if (desc.isPrimitive()) {
+            return desc;
+        }
+        if (desc.isArray()) {
+            // Array types are shared per root, so a canonical root gives a canonical array
+            ArrayDescriptor array = desc.asArray();
+            return canonical(array.root()).asType().arrayType(array.dimensions());
+        }
+        if (desc.isMethod()) {
+            MethodDescriptor method = desc.asMethod();
+            TypeDescriptor[] params = null;
+            for (int i = 0, l = method.parameterCount(); i < l; i++) {
+                TypeDescriptor param = method.parameter(i);
+                TypeDescriptor canonParam = canonical(param).asType();
+                if (canonParam != param) {
+                    if (params == null) params = method.parameterArray();
+                    params[i] = canonParam;
+                }
+            }
+            TypeDescriptor ret = method.returnType();
+            TypeDescriptor canonRet = canonical(ret).asType();
+            // Compact descriptors materialize their parts lazily, and may do so again, so they are always replaced by a
+            // descriptor that holds on to the canonical parts
+            if (params == null && canonRet == ret && !method.compact()) {
+                return lookup(desc);
+            }
+            return lookup(new MethodDescriptor(canonRet, params == null ? method.parameterArray() : params));
+        }
+        return lookup(desc);
+    }
+
+    private Descriptor lookup(Descriptor desc) {
+        Stripe stripe = stripes[stripe(desc.hashCode())];
+        synchronized (stripe) {
+            WeakReference<Descriptor> ref = stripe.get(desc);
+            Descriptor canon = ref == null ? null : ref.get();
+            if (canon != null) {
+                return canon;
+            }
+            stripe.put(desc, new WeakReference<>(desc));
+            return desc;
+        }
+    }
+
+    private static int stripe(int hash) {
+        hash ^= hash >>> 16;
+        return hash & STRIPES - 1;
+    }
+
+    public static DescriptorInterner shared() {
+        return SHARED;
+    }
+
+    // A named map type, so that the stripes can live in a plain array without an unchecked generic array
+    private static final class Stripe extends WeakHashMap<Descriptor, WeakReference<Descriptor>> {
+    }
+}
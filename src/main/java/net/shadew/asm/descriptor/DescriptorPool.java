@@ -0,0 +1,346 @@
+package net.shadew.asm.descriptor;
+
+import java.util.Arrays;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Assigns dense {@code int} handles to type and method descriptors. Type and method handles are counted separately,
+ * both starting at zero, so sets of descriptors can be stored as bitsets. Types are stored as their descriptor strings
+ * and methods as a return type handle plus a slice of parameter type handles in one shared {@code int[]} arena;
+ * {@link Descriptor} instances are only built when a handle is resolved. A pool is not thread-safe.
+ */
+public final class DescriptorPool {
+    private static final int METHOD_STRIDE = 3;
+
+    private final DescriptorReader reader = new DescriptorReader();
+
+    private String[] typeStrings = new String[64];
+    private TypeDescriptor[] typeCache = new TypeDescriptor[64];
+    private int typeCount;
+    private int[] typeTable = new int[128];
+
+    // For each method: return type handle, start in the arena, parameter count
+    private int[] methods = new int[64 * METHOD_STRIDE];
+    private int methodCount;
+    private int[] methodTable = new int[128];
+
+    private int[] arena = new int[256];
+    private int arenaLength;
+
+    private int[] scratch = new int[16];
+
+    public int type(String desc) {
+        Validate.notNull(desc, "desc");
+        int handle = lookupType(desc, 0, desc.length());
+        if (handle >= 0) return handle;
+
+        checkEnd(desc, reader.skipType(desc, 0, desc.length()));
+        return addType(desc);
+    }
+
+    public int type(TypeDescriptor desc) {
+        Validate.notNull(desc, "desc");
+        String str = desc.toString();
+        int handle = lookupType(str, 0, str.length());
+        if (handle < 0) {
+            handle = addType(str);
+        }
+        if (typeCache[handle] == null) {
+            typeCache[handle] = desc;
+        }
+        return handle;
+    }
+
+    public int method(String desc) {
+        Validate.notNull(desc, "desc");
+        checkEnd(desc, reader.skipMethod(desc, 0, desc.length()));
+        return methodHandle(desc, true);
+    }
+
+    public int method(MethodDescriptor desc) {
+        Validate.notNull(desc, "desc");
+        return methodHandle(desc.toString(), true);
+    }
+
+    public int lookupType(CharSequence desc) {
+        Validate.notNull(desc, "desc");
+        return lookupType(desc, 0, desc.length());
+    }
+
+    public int lookupMethod(CharSequence desc) {
+        Validate.notNull(desc, "desc");
+        if (!isMethodLike(desc)) return -1;
+        return methodHandle(desc, false);
+    }
+
+    public int typeCount() {
+        return typeCount;
+    }
+
+    public int methodCount() {
+        return methodCount;
+    }
+
+    public String typeString(int type) {
+        checkType(type);
+        return typeStrings[type];
+    }
+
+    public TypeDescriptor typeDescriptor(int type) {
+        checkType(type);
+        TypeDescriptor out = typeCache[type];
+        if (out == null) {
+            String str = typeStrings[type];
+            typeCache[type] = out = DescriptorParser.trusted(str, 0, str.length());
+        }
+        return out;
+    }
+
+    public int returnType(int method) {
+        checkMethod(method);
+        return methods[method * METHOD_STRIDE];
+    }
+
+    public int parameterCount(int method) {
+        checkMethod(method);
+        return methods[method * METHOD_STRIDE + 2];
+    }
+
+    public int parameter(int method, int index) {
+        int count = parameterCount(method);
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Parameter index " + index + " out of bounds for " + count + " parameters");
+        return arena[methods[method * METHOD_STRIDE + 1] + index];
+    }
+
+    public int[] parameters(int method) {
+        checkMethod(method);
+        int start = methods[method * METHOD_STRIDE + 1];
+        return Arrays.copyOfRange(arena, start, start + methods[method * METHOD_STRIDE + 2]);
+    }
+
+    public MethodDescriptor methodDescriptor(int method) {
+        checkMethod(method);
+        int base = method * METHOD_STRIDE;
+        int start = methods[base + 1];
+        int count = methods[base + 2];
+        TypeDescriptor[] params = new TypeDescriptor[count];
+        for (int i = 0; i < count; i++) {
+            params[i] = typeDescriptor(arena[start + i]);
+        }
+        return new MethodDescriptor(typeDescriptor(methods[base]), params);
+    }
+
+    public String methodString(int method) {
+        checkMethod(method);
+        int base = method * METHOD_STRIDE;
+        int start = methods[base + 1];
+        int count = methods[base + 2];
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < count; i++) {
+            builder.append(typeStrings[arena[start + i]]);
+        }
+        return builder.append(')').append(typeStrings[methods[base]]).toString();
+    }
+
+    private void checkType(int type) {
+        if (type < 0 || type >= typeCount)
+            throw new IndexOutOfBoundsException("No such type handle: " + type);
+    }
+
+    private void checkMethod(int method) {
+        if (method < 0 || method >= methodCount)
+            throw new IndexOutOfBoundsException("No such method handle: " + method);
+    }
+
+    private static void checkEnd(String desc, int end) {
+        if (end < desc.length())
+            throw new DescriptorFormatException("Extra input", desc, end);
+    }
+
+    // Cheap shape check so that lookups of arbitrary strings don't trip over a malformed descriptor
+    static boolean isMethodLike(CharSequence desc) {
+        int len = desc.length();
+        return len >= 3 && desc.charAt(0) == '(';
+    }
+
+    // Types
+
+    static int hash(CharSequence str, int start, int end) {
+        // Same as String.hashCode, so that rehashing can use the hash cached by the String
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + str.charAt(i);
+        }
+        return h;
+    }
+
+    static int mix(int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static boolean regionEquals(String str, CharSequence seq, int start, int end) {
+        int len = end - start;
+        if (str.length() != len) return false;
+        if (seq instanceof String) {
+            return str.regionMatches(0, (String) seq, start, len);
+        }
+        for (int i = 0; i < len; i++) {
+            if (str.charAt(i) != seq.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    private int lookupType(CharSequence desc, int start, int end) {
+        int[] table = typeTable;
+        int mask = table.length - 1;
+        int slot = mix(hash(desc, start, end)) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (regionEquals(typeStrings[entry - 1], desc, start, end)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private int addType(String desc) {
+        int handle = typeCount++;
+        if (handle == typeStrings.length) {
+            typeStrings = Arrays.copyOf(typeStrings, handle * 2);
+            typeCache = Arrays.copyOf(typeCache, handle * 2);
+        }
+        typeStrings[handle] = desc;
+
+        if (typeCount * 2 > typeTable.length) {
+            int[] table = new int[typeTable.length * 2];
+            for (int i = 0; i < handle; i++) {
+                insert(table, mix(typeStrings[i].hashCode()), i);
+            }
+            typeTable = table;
+        }
+        insert(typeTable, mix(desc.hashCode()), handle);
+        return handle;
+    }
+
+    static void insert(int[] table, int hash, int handle) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        table[slot] = handle + 1;
+    }
+
+    // Methods
+
+    // Returns the end of the type descriptor at the given position, or -1 if it runs past the limit. Only the shape is
+    // checked, which is enough for lookups: a malformed type is never found in the pool anyway.
+    static int typeEnd(CharSequence desc, int pos, int limit) {
+        while (pos < limit && desc.charAt(pos) == '[') {
+            pos++;
+        }
+        if (pos >= limit) return -1;
+        if (desc.charAt(pos) == 'L') {
+            while (desc.charAt(pos) != ';') {
+                if (++pos >= limit) return -1;
+            }
+        }
+        return pos + 1;
+    }
+
+    // Resolves a validated method descriptor, or any descriptor when only looking up, to a handle. Returns -1 when
+    // not adding and the method or one of its types is not in the pool.
+    private int methodHandle(CharSequence desc, boolean add) {
+        int len = desc.length();
+        int count = 0;
+        int pos = 1;
+        while (pos < len && desc.charAt(pos) != ')') {
+            int end = typeEnd(desc, pos, len);
+            if (end < 0) return -1;
+            int type = typeHandle(desc, pos, end, add);
+            if (type < 0) return -1;
+
+            if (count == scratch.length) {
+                scratch = Arrays.copyOf(scratch, count * 2);
+            }
+            scratch[count++] = type;
+            pos = end;
+        }
+        pos++;
+        if (typeEnd(desc, pos, len) != len) return -1;
+        int ret = typeHandle(desc, pos, len, add);
+        if (ret < 0) return -1;
+
+        int hash = methodHash(ret, scratch, 0, count);
+        int found = lookupMethod(hash, ret, count);
+        if (found >= 0 || !add) return found;
+        return addMethod(hash, ret, count);
+    }
+
+    private int typeHandle(CharSequence desc, int start, int end, boolean add) {
+        int handle = lookupType(desc, start, end);
+        if (handle >= 0 || !add) return handle;
+        return addType(desc.subSequence(start, end).toString());
+    }
+
+    static int methodHash(int ret, int[] params, int start, int count) {
+        int h = ret;
+        for (int i = 0; i < count; i++) {
+            h = 31 * h + params[start + i];
+        }
+        return mix(h * 0x9E3779B9);
+    }
+
+    private int lookupMethod(int hash, int ret, int count) {
+        int[] table = methodTable;
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int base = (entry - 1) * METHOD_STRIDE;
+            if (methods[base] == ret && methods[base + 2] == count && sameParameters(methods[base + 1], count)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private boolean sameParameters(int start, int count) {
+        for (int i = 0; i < count; i++) {
+            if (arena[start + i] != scratch[i]) return false;
+        }
+        return true;
+    }
+
+    private int addMethod(int hash, int ret, int count) {
+        if (arenaLength + count > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + count));
+        }
+        System.arraycopy(scratch, 0, arena, arenaLength, count);
+
+        int handle = methodCount++;
+        int base = handle * METHOD_STRIDE;
+        if (base == methods.length) {
+            methods = Arrays.copyOf(methods, base * 2);
+        }
+        methods[base] = ret;
+        methods[base + 1] = arenaLength;
+        methods[base + 2] = count;
+        arenaLength += count;
+
+        if (methodCount * 2 > methodTable.length) {
+            int[] table = new int[methodTable.length * 2];
+            for (int i = 0; i < handle; i++) {
+                int b = i * METHOD_STRIDE;
+                insert(table, methodHash(methods[b], arena, methods[b + 1], methods[b + 2]), i);
+            }
+            methodTable = table;
+        }
+        insert(methodTable, hash, handle);
+        return handle;
+    }
+}
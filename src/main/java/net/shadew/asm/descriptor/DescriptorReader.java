@@ -0,0 +1,532 @@
+package net.shadew.asm.descriptor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A reusable descriptor parser that reads from a range of any {@link CharSequence}. The read methods parse one
+ * descriptor starting at the given offset and return the index right after it, which need not be the end of the given
+ * range. The parsed descriptor is available through {@link #result()}. A reader keeps state between calls and must not
+ * be shared between threads.
+ * <p>
+ * Descriptors can also be read straight from modified UTF-8 bytes, such as the CONSTANT_Utf8 entries of a class file,
+ * through the {@code byte[]} and {@link ByteBuffer} overloads. Offsets into a {@link ByteBuffer} are absolute and the
+ * position of the buffer is left untouched. The {@code skip} methods only validate a descriptor and return its end,
+ * without building any descriptor objects, and the {@code accept} methods stream the descriptor into a
+ * {@link DescriptorVisitor} as they go, in the same order in which {@link Descriptor#accept} would visit it. Since no
+ * descriptor objects exist while streaming, only the leaf and hook events are reported; see
+ * {@link DescriptorVisitor}.
+ */
+public final class DescriptorReader {
+    private static final TypeDescriptor[] NO_PARAMETERS = {};
+
+    private CharSequence input;
+    private int offset;
+    private int pos;
+    private int limit;
+
+    private final ByteSequence bytes = new ByteSequence();
+    private TypeDescriptor[] params = new TypeDescriptor[8];
+    private int[] offsets = new int[8];
+    private Descriptor result;
+
+    public Descriptor result() {
+        return result;
+    }
+
+    public int readDescriptor(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = descriptor();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readType(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = type();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readMethod(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = method();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readReference(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = reference();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readArray(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = array();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readPrimitive(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            result = primitive();
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int readDescriptor(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readDescriptor(bytes.set(input), offset, length);
+    }
+
+    public int readDescriptor(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readDescriptor(bytes.set(input), offset, length);
+    }
+
+    public int readType(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readType(bytes.set(input), offset, length);
+    }
+
+    public int readType(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readType(bytes.set(input), offset, length);
+    }
+
+    public int readMethod(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readMethod(bytes.set(input), offset, length);
+    }
+
+    public int readMethod(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return readMethod(bytes.set(input), offset, length);
+    }
+
+    public int skipDescriptor(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            walkDescriptor(null);
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int skipType(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            walkType(null);
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int skipMethod(CharSequence input, int offset, int length) {
+        begin(input, offset, length);
+        try {
+            walkMethod(null);
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int skipDescriptor(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipDescriptor(bytes.set(input), offset, length);
+    }
+
+    public int skipDescriptor(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipDescriptor(bytes.set(input), offset, length);
+    }
+
+    public int skipType(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipType(bytes.set(input), offset, length);
+    }
+
+    public int skipType(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipType(bytes.set(input), offset, length);
+    }
+
+    public int skipMethod(byte[] input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipMethod(bytes.set(input), offset, length);
+    }
+
+    public int skipMethod(ByteBuffer input, int offset, int length) {
+        Validate.notNull(input, "input");
+        return skipMethod(bytes.set(input), offset, length);
+    }
+
+    /**
+     * Streams the descriptor at the given offset into the given visitor and returns the index right after it. Only
+     * {@link DescriptorVisitor#visitInternalName}, {@link DescriptorVisitor#visitPrimitive} and the hook events are
+     * called; overrides of {@code visitType}, {@code visitReference}, {@code visitArray} and {@code visitMethod} are
+     * bypassed.
+     */
+    public int accept(CharSequence input, int offset, int length, DescriptorVisitor visitor) {
+        Validate.notNull(visitor, "visitor");
+        begin(input, offset, length);
+        try {
+            walkDescriptor(visitor);
+            return pos;
+        } finally {
+            end();
+        }
+    }
+
+    public int accept(byte[] input, int offset, int length, DescriptorVisitor visitor) {
+        Validate.notNull(input, "input");
+        return accept(bytes.set(input), offset, length, visitor);
+    }
+
+    public int accept(ByteBuffer input, int offset, int length, DescriptorVisitor visitor) {
+        Validate.notNull(input, "input");
+        return accept(bytes.set(input), offset, length, visitor);
+    }
+
+    private void begin(CharSequence input, int offset, int length) {
+        Validate.notNull(input, "input");
+        if (offset < 0 || length < 0 || offset > input.length() - length)
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", input length: " + input.length());
+
+        this.input = input;
+        this.offset = offset;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.result = null;
+    }
+
+    private void end() {
+        // Do not retain the input buffer after reading
+        this.input = null;
+        this.bytes.clear();
+    }
+
+    private DescriptorFormatException error(String message, int index) {
+        String text = input.subSequence(offset, limit).toString();
+        return new DescriptorFormatException(message, text, index - offset);
+    }
+
+    private PrimitiveDescriptor determinePrimitive(char c) {
+        switch (c) {
+            case 'B': pos++; return PrimitiveDescriptor.BYTE;
+            case 'S': pos++; return PrimitiveDescriptor.SHORT;
+            case 'I': pos++; return PrimitiveDescriptor.INT;
+            case 'J': pos++; return PrimitiveDescriptor.LONG;
+            case 'F': pos++; return PrimitiveDescriptor.FLOAT;
+            case 'D': pos++; return PrimitiveDescriptor.DOUBLE;
+            case 'Z': pos++; return PrimitiveDescriptor.BOOLEAN;
+            case 'C': pos++; return PrimitiveDescriptor.CHAR;
+        }
+        throw error("No such descriptor for prefix '" + c + "'", pos);
+    }
+
+    private PrimitiveDescriptor primitive() {
+        if (pos >= limit)
+            throw error("Expected primitive descriptor", pos);
+
+        return determinePrimitive(input.charAt(pos));
+    }
+
+    private ReferenceDescriptor reference() {
+        if (pos >= limit)
+            throw error("Expected reference descriptor", pos);
+
+        if (input.charAt(pos) == 'L') {
+            pos++;
+            return readReference();
+        }
+        throw error("Expected 'L' to start reference", pos);
+    }
+
+    private ArrayDescriptor array() {
+        if (pos >= limit)
+            throw error("Expected array descriptor", pos);
+
+        if (input.charAt(pos) == '[') {
+            return readArray();
+        }
+        throw error("Expected '[' to start reference", pos);
+    }
+
+    private ReferenceDescriptor readReference() {
+        int start = pos;
+        int end = scanInternalName();
+        pos = end + 1;
+        return new ReferenceDescriptor(slice(start, end));
+    }
+
+    private ArrayDescriptor readArray() {
+        int dimensions = 0;
+        while (pos < limit && input.charAt(pos) == '[') {
+            pos++;
+            dimensions++;
+        }
+        if (dimensions > ArrayDescriptor.MAX_DIMENSIONS)
+            throw error("Too many array dimensions", pos - dimensions);
+        if (pos >= limit)
+            throw error("Expected type descriptor", pos);
+
+        char c = input.charAt(pos);
+        TypeDescriptor root;
+        if (c == 'L') {
+            pos++;
+            root = readReference();
+        } else {
+            root = determinePrimitive(c);
+        }
+        return root.arrayType(dimensions);
+    }
+
+    // Scans an internal name from the current position and returns the index of the terminating ';'
+    private int scanInternalName() {
+        if (pos >= limit)
+            throw error("Unfinished reference descriptor", pos);
+
+        int end = pos;
+        char c;
+        while ((c = input.charAt(end)) != ';') {
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '$' || c == '_' || c == '/')) {
+                throw error("Illegal character in internal name: '" + c + "'", end);
+            }
+            end++;
+            if (end >= limit) {
+                throw error("Unfinished reference descriptor", pos);
+            }
+        }
+        return end;
+    }
+
+    private String slice(int start, int end) {
+        CharSequence input = this.input;
+        if (input instanceof String) {
+            return ((String) input).substring(start, end);
+        }
+        if (input == bytes) {
+            return bytes.string(start, end);
+        }
+        return input.subSequence(start, end).toString();
+    }
+
+    private TypeDescriptor type() {
+        if (pos >= limit)
+            throw error("Expected type descriptor", pos);
+
+        char c = input.charAt(pos);
+        if (c == 'L') {
+            pos++;
+            return readReference();
+        }
+        if (c == '[') {
+            return readArray();
+        }
+        return determinePrimitive(c);
+    }
+
+    // Walks over a type descriptor without building it, reporting it to the visitor if there is one
+    private void walkType(DescriptorVisitor visitor) {
+        int dimStart = pos;
+        while (pos < limit && input.charAt(pos) == '[') {
+            pos++;
+            if (visitor != null) visitor.visitArrayDimension();
+        }
+        if (pos - dimStart > ArrayDescriptor.MAX_DIMENSIONS)
+            throw error("Too many array dimensions", dimStart);
+        if (pos >= limit)
+            throw error("Expected type descriptor", pos);
+
+        if (input.charAt(pos) == 'L') {
+            int start = ++pos;
+            int end = scanInternalName();
+            pos = end + 1;
+            if (visitor != null) visitor.visitInternalName(slice(start, end));
+        } else {
+            PrimitiveDescriptor primitive = determinePrimitive(input.charAt(pos));
+            if (visitor != null) visitor.visitPrimitive(primitive);
+        }
+    }
+
+    private void walkMethod(DescriptorVisitor visitor) {
+        if (pos >= limit || input.charAt(pos) != '(')
+            throw error("Expected '(' in method descriptor", pos);
+        pos++;
+
+        if (visitor != null) visitor.visitMethodStart();
+
+        int index = 0;
+        while (pos < limit && input.charAt(pos) != ')') {
+            if (visitor != null) visitor.visitParameter(index++);
+            walkType(visitor);
+        }
+        if (pos >= limit)
+            throw error("Unfinished list of parameter types", pos);
+        pos++;
+
+        if (pos >= limit)
+            throw error("Expected return type descriptor", pos);
+
+        if (visitor != null) visitor.visitReturnType();
+        if (input.charAt(pos) == 'V') {
+            pos++;
+            if (visitor != null) visitor.visitPrimitive(PrimitiveDescriptor.VOID);
+        } else {
+            walkType(visitor);
+        }
+
+        if (visitor != null) visitor.visitMethodEnd();
+    }
+
+    private void walkDescriptor(DescriptorVisitor visitor) {
+        if (pos < limit && input.charAt(pos) == '(') {
+            walkMethod(visitor);
+        } else {
+            walkType(visitor);
+        }
+    }
+
+    private TypeDescriptor returnType() {
+        if (pos >= limit)
+            throw error("Expected return type descriptor", pos);
+
+        if (input.charAt(pos) == 'V') {
+            pos++;
+            return PrimitiveDescriptor.VOID;
+        }
+        return type();
+    }
+
+    private TypeDescriptor[] parameters() {
+        TypeDescriptor[] params = this.params;
+        int count = 0;
+        try {
+            while (pos < limit && input.charAt(pos) != ')') {
+                if (count == params.length) {
+                    this.params = params = Arrays.copyOf(params, count * 2);
+                }
+                params[count++] = type();
+            }
+            if (pos >= limit) {
+                throw error("Unfinished list of parameter types", pos);
+            }
+            return count == 0 ? NO_PARAMETERS : Arrays.copyOf(params, count);
+        } finally {
+            Arrays.fill(params, 0, count, null);
+        }
+    }
+
+    private MethodDescriptor method() {
+        int start = pos;
+        if (pos >= limit || input.charAt(pos) != '(')
+            throw error("Expected '(' in method descriptor", pos);
+        pos++;
+
+        int[] offsets = this.offsets;
+        int count = 0;
+        int parsSize = 0;
+        while (pos < limit && input.charAt(pos) != ')') {
+            if (count == offsets.length) {
+                this.offsets = offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = pos - start;
+            parsSize += typeSize(input.charAt(pos));
+            walkType(null);
+        }
+        if (pos >= limit)
+            throw error("Unfinished list of parameter types", pos);
+
+        int close = pos - start;
+        pos++;
+
+        if (pos >= limit)
+            throw error("Expected return type descriptor", pos);
+
+        int returnSize;
+        if (input.charAt(pos) == 'V') {
+            pos++;
+            returnSize = 0;
+        } else {
+            returnSize = typeSize(input.charAt(pos));
+            walkType(null);
+        }
+
+        if (pos - start > 0xFFFF) {
+            // Offsets don't fit in a char, build the whole tree instead
+            pos = start;
+            return treeMethod();
+        }
+
+        char[] table = new char[count + 1];
+        for (int i = 0; i < count; i++) {
+            table[i] = (char) offsets[i];
+        }
+        table[count] = (char) close;
+        return new MethodDescriptor(whole(start, pos), table, parsSize << 2 | returnSize);
+    }
+
+    private static int typeSize(char c) {
+        return c == 'J' || c == 'D' ? 2 : 1;
+    }
+
+    private String whole(int start, int end) {
+        if (input instanceof String && start == 0 && end == input.length()) {
+            return (String) input;
+        }
+        return slice(start, end);
+    }
+
+    private MethodDescriptor treeMethod() {
+        if (pos >= limit)
+            throw error("Expected '(' in method descriptor", pos);
+
+        if (input.charAt(pos) != '(')
+            throw error("Expected '(' in method descriptor", pos);
+        pos++;
+
+        TypeDescriptor[] params = parameters();
+
+        // parameters() guarantees that we stopped at a ')'
+        pos++;
+
+        TypeDescriptor ret = returnType();
+        return new MethodDescriptor(ret, params);
+    }
+
+    private Descriptor descriptor() {
+        if (pos >= limit)
+            throw error("Expected descriptor", pos);
+
+        if (input.charAt(pos) == '(') {
+            return method();
+        }
+        return type();
+    }
+}
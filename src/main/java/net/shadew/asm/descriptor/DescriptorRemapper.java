@@ -0,0 +1,142 @@
+package net.shadew.asm.descriptor;
+
+/**
+ * Remaps a descriptor string in a single pass, without building descriptor objects. Spans that the mapper leaves
+ * unchanged are copied in bulk, and the input is returned as is when nothing changed at all.
+ */
+final class DescriptorRemapper {
+    private final CharSequence input;
+    private final Mapper mapper;
+    private final int length;
+
+    private int pos;
+    private int copied;
+    private StringBuilder output;
+
+    private String errorMessage;
+    private int errorIndex;
+
+    private DescriptorRemapper(CharSequence input, Mapper mapper) {
+        this.input = input;
+        this.mapper = mapper;
+        this.length = input.length();
+    }
+
+    // Records the error and returns false, so that lenient callers don't pay for an exception
+    private boolean fail(String message, int index) {
+        errorMessage = message;
+        errorIndex = index;
+        return false;
+    }
+
+    private boolean type() {
+        int start = pos;
+        while (pos < length && input.charAt(pos) == '[') {
+            pos++;
+        }
+        if (pos - start > ArrayDescriptor.MAX_DIMENSIONS)
+            return fail("Too many array dimensions", start);
+        if (pos >= length)
+            return fail("Expected type descriptor", pos);
+
+        char c = input.charAt(pos);
+        switch (c) {
+            case 'B':
+            case 'S':
+            case 'I':
+            case 'J':
+            case 'F':
+            case 'D':
+            case 'Z':
+            case 'C':
+                pos++;
+                return true;
+            case 'L':
+                pos++;
+                return reference();
+        }
+        return fail("No such descriptor for prefix '" + c + "'", pos);
+    }
+
+    private boolean reference() {
+        int start = pos;
+        if (start >= length)
+            return fail("Unfinished reference descriptor", start);
+
+        int end = start;
+        char c;
+        while ((c = input.charAt(end)) != ';') {
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '$' || c == '_' || c == '/')) {
+                return fail("Illegal character in internal name: '" + c + "'", end);
+            }
+            end++;
+            if (end >= length) {
+                return fail("Unfinished reference descriptor", start);
+            }
+        }
+        pos = end + 1;
+
+        String name = input.subSequence(start, end).toString();
+        String mapped = mapper.remap(name);
+        if (!mapped.equals(name)) {
+            if (output == null) {
+                output = new StringBuilder(length + 16);
+            }
+            output.append(input, copied, start).append(mapped);
+            copied = end;
+        }
+        return true;
+    }
+
+    private boolean method() {
+        pos++;
+        while (pos < length && input.charAt(pos) != ')') {
+            if (!type()) return false;
+        }
+        if (pos >= length)
+            return fail("Unfinished list of parameter types", pos);
+        pos++;
+
+        if (pos >= length)
+            return fail("Expected return type descriptor", pos);
+
+        if (input.charAt(pos) == 'V') {
+            pos++;
+            return true;
+        }
+        return type();
+    }
+
+    // Returns the remapped descriptor, or null when the input is malformed
+    private String remap() {
+        if (length == 0) {
+            fail("Expected descriptor", 0);
+            return null;
+        }
+
+        boolean valid = input.charAt(0) == '(' ? method() : type();
+        if (!valid) return null;
+        if (pos < length) {
+            fail("Extra input", pos);
+            return null;
+        }
+
+        if (output == null) {
+            return input.toString();
+        }
+        return output.append(input, copied, length).toString();
+    }
+
+    static String remap(CharSequence input, Mapper mapper) {
+        DescriptorRemapper remapper = new DescriptorRemapper(input, mapper);
+        String out = remapper.remap();
+        if (out == null)
+            throw new DescriptorFormatException(remapper.errorMessage, input.toString(), remapper.errorIndex);
+        return out;
+    }
+
+    // Same as remap, but returns null instead of throwing when the descriptor is malformed
+    static String tryRemap(CharSequence input, Mapper mapper) {
+        return new DescriptorRemapper(input, mapper).remap();
+    }
+}
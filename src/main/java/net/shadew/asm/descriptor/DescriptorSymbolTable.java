@@ -0,0 +1,535 @@
+package net.shadew.asm.descriptor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A read-only snapshot of a {@link DescriptorPool}, stored in a file and memory-mapped on load. The handles, lookup
+ * tables and descriptor strings all live in the mapped file and are used in place, so opening a table costs nothing
+ * beyond reading its header. Descriptors are decoded lazily when a handle is resolved. The file starts with a magic
+ * number and a format version, and files of another version or with inconsistent section lengths are rejected with an
+ * {@link IOException}. The entries themselves are checked as they are used, and a corrupt entry is reported with an
+ * {@link UncheckedIOException}; {@link #verify()} checks the whole file up front. Once opened, a table can be shared
+ * between threads.
+ *
+ * <pre>
+ * int magic, version, typeCount, methodCount, arenaLength, typeTableLength, methodTableLength, stringLength
+ * int[typeCount + 1]         typeOffsets  (into the string section)
+ * byte[stringLength]         strings      (modified UTF-8 type descriptors, padded to a multiple of 4)
+ * int[methodCount * 3]       methods      (return type, arena start, parameter count)
+ * int[arenaLength]           arena        (parameter type handles)
+ * int[typeTableLength]       typeTable    (open addressing, handle + 1)
+ * int[methodTableLength]     methodTable  (open addressing, handle + 1)
+ * </pre>
+ */
+public final class DescriptorSymbolTable {
+    private static final int MAGIC = 0x44534354; // DSCT
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private final ByteBuffer buffer;
+    private final int typeCount;
+    private final int methodCount;
+    private final int typeTableLength;
+    private final int methodTableLength;
+    private final int stringLength;
+    private final int arenaLength;
+
+    private final int typeOffsets;
+    private final int strings;
+    private final int methods;
+    private final int arena;
+    private final int typeTable;
+    private final int methodTable;
+
+    private final TypeDescriptor[] typeCache;
+
+    private DescriptorSymbolTable(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a descriptor symbol table");
+
+        int version = buffer.getInt(4);
+        if (version != VERSION)
+            throw new IOException("Unsupported descriptor symbol table version " + version + ", expected " + VERSION);
+
+        typeCount = buffer.getInt(8);
+        methodCount = buffer.getInt(12);
+        arenaLength = buffer.getInt(16);
+        typeTableLength = buffer.getInt(20);
+        methodTableLength = buffer.getInt(24);
+        stringLength = buffer.getInt(28);
+
+        if (typeCount < 0 || methodCount < 0 || arenaLength < 0 || stringLength < 0)
+            throw corrupt("negative section length");
+        // Lookups mask hashes with the table length, and written tables always keep a free slot
+        if (Integer.bitCount(typeTableLength) != 1 || typeTableLength <= typeCount)
+            throw corrupt("invalid type table length " + typeTableLength);
+        if (Integer.bitCount(methodTableLength) != 1 || methodTableLength <= methodCount)
+            throw corrupt("invalid method table length " + methodTableLength);
+
+        long size = fileSize(typeCount, methodCount, stringLength, arenaLength, typeTableLength, methodTableLength);
+        if (size != buffer.limit())
+            throw corrupt("section lengths don't match file size");
+
+        typeOffsets = HEADER_SIZE;
+        strings = typeOffsets + (typeCount + 1) * 4;
+        methods = strings + pad(stringLength);
+        arena = methods + methodCount * 12;
+        typeTable = arena + arenaLength * 4;
+        methodTable = typeTable + typeTableLength * 4;
+
+        typeCache = new TypeDescriptor[typeCount];
+    }
+
+    /**
+     * Checks every offset, handle, string and lookup table entry in the file. Opening a table only checks its header,
+     * so that opening stays cheap; this touches every page of the file instead.
+     *
+     * @throws IOException If the table is corrupt
+     */
+    public void verify() throws IOException {
+        int prev = 0;
+        if (buffer.getInt(typeOffsets) != 0)
+            throw corrupt("first type offset is not 0");
+        for (int i = 1; i <= typeCount; i++) {
+            int offset = buffer.getInt(typeOffsets + i * 4);
+            if (offset <= prev || offset > stringLength)
+                throw corrupt("type offset " + offset + " out of bounds");
+            for (int pos = strings + prev, limit = strings + offset; pos < limit; ) {
+                int len = sequenceLength(pos, limit);
+                if (len < 0)
+                    throw corrupt("malformed string at offset " + (pos - strings));
+                pos += len;
+            }
+            prev = offset;
+        }
+        if (prev != stringLength)
+            throw corrupt("type offsets don't cover the string section");
+
+        int arenaStart = 0;
+        for (int i = 0; i < methodCount; i++) {
+            int ret = buffer.getInt(methods + i * 12);
+            int start = buffer.getInt(methods + i * 12 + 4);
+            int count = buffer.getInt(methods + i * 12 + 8);
+            if (ret < 0 || ret >= typeCount)
+                throw corrupt("return type handle " + ret + " out of bounds");
+            if (start != arenaStart || count < 0 || count > arenaLength - start)
+                throw corrupt("parameters of method " + i + " out of bounds");
+            arenaStart += count;
+        }
+        if (arenaStart != arenaLength)
+            throw corrupt("methods don't cover the parameter arena");
+        for (int i = 0; i < arenaLength; i++) {
+            int param = buffer.getInt(arena + i * 4);
+            if (param < 0 || param >= typeCount)
+                throw corrupt("parameter type handle " + param + " out of bounds");
+        }
+
+        verifyTable(typeTable, typeTableLength, typeCount);
+        verifyTable(methodTable, methodTableLength, methodCount);
+    }
+
+    private void verifyTable(int offset, int length, int count) throws IOException {
+        int entries = 0;
+        for (int i = 0; i < length; i++) {
+            int entry = buffer.getInt(offset + i * 4);
+            if (entry == 0) continue;
+            if (entry < 0 || entry > count)
+                throw corrupt("table entry " + entry + " out of bounds");
+            entries++;
+        }
+        if (entries != count)
+            throw corrupt("lookup table holds " + entries + " entries, expected " + count);
+    }
+
+    // Returns the length of the modified UTF-8 sequence at the given position, or -1 if it is malformed
+    private int sequenceLength(int pos, int limit) {
+        int b = buffer.get(pos) & 0xFF;
+        int len = b < 0x80 ? 1 : (b & 0xE0) == 0xC0 ? 2 : (b & 0xF0) == 0xE0 ? 3 : -1;
+        if (len < 0 || pos + len > limit) return -1;
+        for (int i = 1; i < len; i++) {
+            if ((buffer.get(pos + i) & 0xC0) != 0x80) return -1;
+        }
+        return len;
+    }
+
+    private static UncheckedIOException corruptEntry(String reason) {
+        return new UncheckedIOException(corrupt(reason));
+    }
+
+    private static IOException corrupt(String reason) {
+        return new IOException("Corrupt descriptor symbol table: " + reason);
+    }
+
+    private static int pad(int length) {
+        return length + 3 & ~3;
+    }
+
+    public int typeCount() {
+        return typeCount;
+    }
+
+    public int methodCount() {
+        return methodCount;
+    }
+
+    public String typeString(int type) {
+        checkType(type);
+        int start = typeStart(type);
+        int end = buffer.getInt(typeOffsets + type * 4 + 4);
+        char[] chars = new char[end - start];
+        int len = 0;
+        for (int pos = strings + start, limit = strings + end; pos < limit; ) {
+            int seq = sequenceLength(pos, limit);
+            if (seq < 0)
+                throw corruptEntry("malformed string at offset " + (pos - strings));
+            chars[len++] = decode(pos, seq);
+            pos += seq;
+        }
+        return new String(chars, 0, len);
+    }
+
+    // Reads the start offset of a type, after checking that its range lies within the string section
+    private int typeStart(int type) {
+        int start = buffer.getInt(typeOffsets + type * 4);
+        int end = buffer.getInt(typeOffsets + type * 4 + 4);
+        if (start < 0 || start > end || end > stringLength)
+            throw corruptEntry("string of type " + type + " out of bounds");
+        return start;
+    }
+
+    // Decodes a modified UTF-8 sequence of the given length, as returned by sequenceLength
+    private char decode(int pos, int len) {
+        int b = buffer.get(pos) & 0xFF;
+        if (len == 1) {
+            return (char) b;
+        }
+        if (len == 2) {
+            return (char) ((b & 0x1F) << 6 | buffer.get(pos + 1) & 0x3F);
+        }
+        return (char) ((b & 0x0F) << 12 | (buffer.get(pos + 1) & 0x3F) << 6 | buffer.get(pos + 2) & 0x3F);
+    }
+
+    public TypeDescriptor typeDescriptor(int type) {
+        checkType(type);
+        TypeDescriptor out = typeCache[type];
+        if (out == null) {
+            String str = typeString(type);
+            typeCache[type] = out = DescriptorParser.trusted(str, 0, str.length());
+        }
+        return out;
+    }
+
+    public int returnType(int method) {
+        checkMethod(method);
+        int ret = buffer.getInt(methods + method * 12);
+        if (ret < 0 || ret >= typeCount)
+            throw corruptEntry("return type of method " + method + " out of bounds");
+        return ret;
+    }
+
+    public int parameterCount(int method) {
+        checkMethod(method);
+        int start = buffer.getInt(methods + method * 12 + 4);
+        int count = buffer.getInt(methods + method * 12 + 8);
+        if (start < 0 || count < 0 || count > arenaLength - start)
+            throw corruptEntry("parameters of method " + method + " out of bounds");
+        return count;
+    }
+
+    public int parameter(int method, int index) {
+        int count = parameterCount(method);
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Parameter index " + index + " out of bounds for " + count + " parameters");
+        return parameterAt(buffer.getInt(methods + method * 12 + 4) + index);
+    }
+
+    public int[] parameters(int method) {
+        int count = parameterCount(method);
+        int start = buffer.getInt(methods + method * 12 + 4);
+        int[] out = new int[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = parameterAt(start + i);
+        }
+        return out;
+    }
+
+    private int parameterAt(int slot) {
+        int param = buffer.getInt(arena + slot * 4);
+        if (param < 0 || param >= typeCount)
+            throw corruptEntry("parameter type handle " + param + " out of bounds");
+        return param;
+    }
+
+    public MethodDescriptor methodDescriptor(int method) {
+        int[] params = parameters(method);
+        TypeDescriptor[] types = new TypeDescriptor[params.length];
+        for (int i = 0; i < params.length; i++) {
+            types[i] = typeDescriptor(params[i]);
+        }
+        return new MethodDescriptor(typeDescriptor(returnType(method)), types);
+    }
+
+    public String methodString(int method) {
+        int[] params = parameters(method);
+        StringBuilder builder = new StringBuilder("(");
+        for (int param : params) {
+            builder.append(typeString(param));
+        }
+        return builder.append(')').append(typeString(returnType(method))).toString();
+    }
+
+    public int lookupType(CharSequence desc) {
+        Validate.notNull(desc, "desc");
+        return lookupType(desc, 0, desc.length());
+    }
+
+    public int lookupMethod(CharSequence desc) {
+        Validate.notNull(desc, "desc");
+        if (!DescriptorPool.isMethodLike(desc)) return -1;
+
+        int len = desc.length();
+        int[] params = new int[8];
+        int count = 0;
+        int pos = 1;
+        while (pos < len && desc.charAt(pos) != ')') {
+            int end = DescriptorPool.typeEnd(desc, pos, len);
+            if (end < 0) return -1;
+            int type = lookupType(desc, pos, end);
+            if (type < 0) return -1;
+
+            if (count == params.length) {
+                params = Arrays.copyOf(params, count * 2);
+            }
+            params[count++] = type;
+            pos = end;
+        }
+        pos++;
+        if (DescriptorPool.typeEnd(desc, pos, len) != len) return -1;
+        int ret = lookupType(desc, pos, len);
+        if (ret < 0) return -1;
+
+        int mask = methodTableLength - 1;
+        int slot = DescriptorPool.methodHash(ret, params, 0, count) & mask;
+        for (int probes = 0; probes < methodTableLength; probes++) {
+            int entry = tableEntry(methodTable, slot, methodCount);
+            if (entry == 0) return -1;
+
+            int method = entry - 1;
+            if (returnType(method) == ret && parameterCount(method) == count && sameParameters(method, params, count)) {
+                return method;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private boolean sameParameters(int method, int[] params, int count) {
+        int start = buffer.getInt(methods + method * 12 + 4);
+        for (int i = 0; i < count; i++) {
+            if (parameterAt(start + i) != params[i]) return false;
+        }
+        return true;
+    }
+
+    private int lookupType(CharSequence desc, int start, int end) {
+        int mask = typeTableLength - 1;
+        int slot = DescriptorPool.mix(DescriptorPool.hash(desc, start, end)) & mask;
+        // Bounded, so that a corrupt table without free slots can't loop forever
+        for (int probes = 0; probes < typeTableLength; probes++) {
+            int entry = tableEntry(typeTable, slot, typeCount);
+            if (entry == 0) return -1;
+            if (typeEquals(entry - 1, desc, start, end)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private int tableEntry(int table, int slot, int count) {
+        int entry = buffer.getInt(table + slot * 4);
+        if (entry < 0 || entry > count)
+            throw corruptEntry("table entry " + entry + " out of bounds");
+        return entry;
+    }
+
+    private boolean typeEquals(int type, CharSequence desc, int start, int end) {
+        int from = typeStart(type);
+        int to = buffer.getInt(typeOffsets + type * 4 + 4);
+        // Every character takes at least one byte, and at most three
+        if (to - from < end - start || to - from > (end - start) * 3) return false;
+
+        int pos = strings + from;
+        int limit = strings + to;
+        for (int i = start; i < end; i++) {
+            if (pos >= limit) return false;
+            int seq = sequenceLength(pos, limit);
+            if (seq < 0)
+                throw corruptEntry("malformed string at offset " + (pos - strings));
+            if (decode(pos, seq) != desc.charAt(i)) return false;
+            pos += seq;
+        }
+        return pos == limit;
+    }
+
+    private void checkType(int type) {
+        if (type < 0 || type >= typeCount)
+            throw new IndexOutOfBoundsException("No such type handle: " + type);
+    }
+
+    private void checkMethod(int method) {
+        if (method < 0 || method >= methodCount)
+            throw new IndexOutOfBoundsException("No such method handle: " + method);
+    }
+
+    public static DescriptorSymbolTable open(Path path) throws IOException {
+        Validate.notNull(path, "path");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new DescriptorSymbolTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static void write(DescriptorPool pool, Path path) throws IOException {
+        Validate.notNull(pool, "pool");
+        Validate.notNull(path, "path");
+
+        int typeCount = pool.typeCount();
+        int methodCount = pool.methodCount();
+
+        byte[][] strings = new byte[typeCount][];
+        long stringBytes = 0;
+        for (int i = 0; i < typeCount; i++) {
+            strings[i] = encode(pool.typeString(i));
+            stringBytes += strings[i].length;
+        }
+
+        long arenaSlots = 0;
+        for (int i = 0; i < methodCount; i++) {
+            arenaSlots += pool.parameterCount(i);
+        }
+        if (stringBytes > Integer.MAX_VALUE || arenaSlots > Integer.MAX_VALUE)
+            throw new IOException("Descriptor pool too large for a symbol table");
+        int stringLength = (int) stringBytes;
+        int arenaLength = (int) arenaSlots;
+
+        int[] typeTable = new int[tableLength(typeCount)];
+        for (int i = 0; i < typeCount; i++) {
+            DescriptorPool.insert(typeTable, DescriptorPool.mix(pool.typeString(i).hashCode()), i);
+        }
+
+        int[] methodTable = new int[tableLength(methodCount)];
+        int[][] params = new int[methodCount][];
+        for (int i = 0; i < methodCount; i++) {
+            params[i] = pool.parameters(i);
+            int hash = DescriptorPool.methodHash(pool.returnType(i), params[i], 0, params[i].length);
+            DescriptorPool.insert(methodTable, hash, i);
+        }
+
+        long size = fileSize(typeCount, methodCount, stringLength, arenaLength, typeTable.length, methodTable.length);
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Descriptor pool too large for a symbol table: " + size + " bytes");
+
+        int padded = pad(stringLength);
+        AtomicFiles.write(path, stream -> {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(typeCount);
+            out.writeInt(methodCount);
+            out.writeInt(arenaLength);
+            out.writeInt(typeTable.length);
+            out.writeInt(methodTable.length);
+            out.writeInt(stringLength);
+
+            int offset = 0;
+            for (byte[] str : strings) {
+                out.writeInt(offset);
+                offset += str.length;
+            }
+            out.writeInt(offset);
+            for (byte[] str : strings) {
+                out.write(str);
+            }
+            out.write(new byte[padded - stringLength]);
+
+            int arenaStart = 0;
+            for (int i = 0; i < methodCount; i++) {
+                out.writeInt(pool.returnType(i));
+                out.writeInt(arenaStart);
+                out.writeInt(params[i].length);
+                arenaStart += params[i].length;
+            }
+            for (int[] slice : params) {
+                for (int param : slice) {
+                    out.writeInt(param);
+                }
+            }
+            for (int entry : typeTable) {
+                out.writeInt(entry);
+            }
+            for (int entry : methodTable) {
+                out.writeInt(entry);
+            }
+            out.flush();
+        });
+    }
+
+    // The size of a file with the given section lengths, in exact arithmetic so that it can't silently overflow
+    private static long fileSize(int typeCount, int methodCount, int stringLength, int arenaLength,
+                                 int typeTableLength, int methodTableLength) {
+        long size = HEADER_SIZE;
+        size = Math.addExact(size, Math.multiplyExact(typeCount + 1L, 4));
+        size = Math.addExact(size, stringLength + 3L & ~3L);
+        size = Math.addExact(size, Math.multiplyExact((long) methodCount, 12));
+        size = Math.addExact(size, Math.multiplyExact((long) arenaLength, 4));
+        size = Math.addExact(size, Math.multiplyExact((long) typeTableLength, 4));
+        return Math.addExact(size, Math.multiplyExact((long) methodTableLength, 4));
+    }
+
+    // Modified UTF-8, as in class files, so that any name the JVM accepts can be stored
+    private static byte[] encode(String str) {
+        int len = str.length();
+        int size = 0;
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(i);
+            size += c >= 0x01 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+
+        byte[] out = new byte[size];
+        int pos = 0;
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(i);
+            if (c >= 0x01 && c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | c >> 6);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                out[pos++] = (byte) (0xE0 | c >> 12);
+                out[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return out;
+    }
+
+    // Smallest power of two that keeps the load factor at or below one half
+    private static int tableLength(int count) {
+        int length = 2;
+        while (length < count * 2) {
+            length <<= 1;
+        }
+        return length;
+    }
+}
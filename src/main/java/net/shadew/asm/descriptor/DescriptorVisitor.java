@@ -1,5 +1,15 @@
 package net.shadew.asm.descriptor;
 
+/**
+ * Visits the parts of a descriptor. {@link Descriptor#accept} calls the {@code visit} method for the descriptor itself,
+ * whose default implementations break it down into its parts, down to the leaf events {@link #visitInternalName} and
+ * {@link #visitPrimitive}. The hook events {@link #visitArrayDimension}, {@link #visitMethodStart},
+ * {@link #visitParameter}, {@link #visitReturnType} and {@link #visitMethodEnd} mark the structure in between.
+ * <p>
+ * When a descriptor is streamed by {@link DescriptorReader#accept}, no descriptor objects are built, so only the leaf
+ * and hook events are reported. Overrides of {@link #visitType}, {@link #visitReference}, {@link #visitArray} and
+ * {@link #visitMethod} are not called in that case.
+ */
 public abstract class DescriptorVisitor {
     public abstract void visitInternalName(String internalName);
 
@@ -8,9 +18,14 @@ public abstract class DescriptorVisitor {
     }
 
     public void visitArray(ArrayDescriptor desc) {
+        visitArrayDimension();
         visitType(desc.element());
     }
 
+    public void visitArrayDimension() {
+
+    }
+
     public void visitPrimitive(PrimitiveDescriptor desc) {
 
     }
@@ -22,8 +37,30 @@ public abstract class DescriptorVisitor {
     }
 
     public void visitMethod(MethodDescriptor desc) {
-        desc.parameters().forEach(this::visitType);
+        visitMethodStart();
+        for (int i = 0, l = desc.parameterCount(); i < l; i++) {
+            visitParameter(i);
+            visitType(desc.parameter(i));
+        }
+        visitReturnType();
         visitType(desc.returnType());
+        visitMethodEnd();
+    }
+
+    public void visitMethodStart() {
+
+    }
+
+    public void visitParameter(int index) {
+
+    }
+
+    public void visitReturnType() {
+
+    }
+
+    public void visitMethodEnd() {
+
     }
 
     public void visit(Descriptor desc) {
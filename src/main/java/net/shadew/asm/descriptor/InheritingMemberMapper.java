@@ -0,0 +1,77 @@
+package net.shadew.asm.descriptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MemberMapper} over a {@link TableMapper} that also finds mappings declared in supertypes. The supertypes
+ * of each owner are walked breadth-first, nearest first, and only those that have any member mappings are remembered,
+ * so after the first lookup in a class, resolving a member only probes the classes that could possibly map it.
+ */
+final class InheritingMemberMapper implements MemberMapper {
+    private static final String[] NONE = {};
+
+    private final TableMapper table;
+    private final ClassHierarchy hierarchy;
+    private final ConcurrentHashMap<String, String[]> candidates = new ConcurrentHashMap<>();
+
+    InheritingMemberMapper(TableMapper table, ClassHierarchy hierarchy) {
+        this.table = table;
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    public String mapField(String owner, String name, String descriptor) {
+        int member = table.findField(owner, name, descriptor);
+        if (member < 0) {
+            for (String supertype : candidates(owner)) {
+                member = table.findField(supertype, name, descriptor);
+                if (member >= 0) break;
+            }
+        }
+        return member < 0 ? name : table.memberValue(member);
+    }
+
+    @Override
+    public String mapMethod(String owner, String name, String descriptor) {
+        int member = table.findMethod(owner, name, descriptor);
+        if (member < 0) {
+            for (String supertype : candidates(owner)) {
+                member = table.findMethod(supertype, name, descriptor);
+                if (member >= 0) break;
+            }
+        }
+        return member < 0 ? name : table.memberValue(member);
+    }
+
+    private String[] candidates(String owner) {
+        String[] out = candidates.get(owner);
+        if (out == null) {
+            out = computeCandidates(owner);
+            String[] prev = candidates.putIfAbsent(owner, out);
+            if (prev != null) out = prev;
+        }
+        return out;
+    }
+
+    private String[] computeCandidates(String owner) {
+        List<String> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        seen.add(owner);
+        queue.add(owner);
+        while (!queue.isEmpty()) {
+            for (String supertype : hierarchy.supertypes(queue.poll())) {
+                if (seen.add(supertype)) {
+                    queue.add(supertype);
+                    if (table.hasMembers(supertype)) out.add(supertype);
+                }
+            }
+        }
+        return out.isEmpty() ? NONE : out.toArray(NONE);
+    }
+}
@@ -0,0 +1,220 @@
+package net.shadew.asm.descriptor;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * An internal class name with its package and inner class separators located once, up front. All the name segments
+ * are returned as views on the original string, so querying them does not copy any characters.
+ */
+public final class InternalName implements CharSequence {
+    private final String name;
+    private final int lastSlash;
+    private final int firstDollar;
+    private final int lastDollar;
+
+    private InternalName(String name) {
+        this.name = name;
+
+        int lastSlash = -1, firstDollar = -1, lastDollar = -1;
+        for (int i = 0, l = name.length(); i < l; i++) {
+            char c = name.charAt(i);
+            if (c == '/') {
+                lastSlash = i;
+                firstDollar = -1;
+                lastDollar = -1;
+            } else if (c == '$') {
+                if (firstDollar < 0) firstDollar = i;
+                lastDollar = i;
+            }
+        }
+        this.lastSlash = lastSlash;
+        this.firstDollar = firstDollar;
+        this.lastDollar = lastDollar;
+    }
+
+    public CharSequence packageName() {
+        return lastSlash < 0 ? "" : view(0, lastSlash);
+    }
+
+    public CharSequence className() {
+        return lastSlash < 0 ? name : view(lastSlash + 1, name.length());
+    }
+
+    public CharSequence simpleName() {
+        int start = Math.max(lastSlash, lastDollar) + 1;
+        return start == 0 ? name : view(start, name.length());
+    }
+
+    public CharSequence outerClass() {
+        if (lastDollar < 0)
+            Validate.illegalArgument("Not an inner class: '" + name + "'");
+        return view(0, lastDollar);
+    }
+
+    public CharSequence rootClass() {
+        return firstDollar < 0 ? name : view(0, firstDollar);
+    }
+
+    public boolean isInnerClass() {
+        return lastDollar >= 0;
+    }
+
+    public boolean inMainPackage() {
+        return lastSlash < 0;
+    }
+
+    public boolean inPackage(CharSequence pkg) {
+        Validate.notNull(pkg, "pkg");
+        int len = pkg.length();
+        if (len == 0) return true;
+        return len <= lastSlash && name.charAt(len) == '/' && startsWith(pkg);
+    }
+
+    public boolean inClass(CharSequence cls) {
+        Validate.notNull(cls, "cls");
+        int len = cls.length();
+        return len > lastSlash && len < name.length() && name.charAt(len) == '$' && startsWith(cls);
+    }
+
+    public InternalName renamePackage(CharSequence from, CharSequence to) {
+        Validate.notNull(from, "from");
+        Validate.notNull(to, "to");
+        if (from.length() == 0) {
+            return to.length() == 0 ? this : new InternalName(to + "/" + name);
+        }
+        if (!inPackage(from) || contentEquals(from, to)) return this;
+        return new InternalName(to + name.substring(from.length()));
+    }
+
+    public InternalName renameClass(CharSequence from, CharSequence to) {
+        Validate.notNull(from, "from");
+        Validate.notNull(to, "to");
+        if (contentEquals(from, to)) return this;
+        if (contentEquals(from, name)) return new InternalName(to.toString());
+        if (!inClass(from)) return this;
+        return new InternalName(to + name.substring(from.length()));
+    }
+
+    public String toCode() {
+        char[] chars = name.toCharArray();
+        for (int i = 0, l = chars.length; i < l; i++) {
+            char c = chars[i];
+            if (i < lastSlash ? c == '/' : c == '$' || i == lastSlash) chars[i] = '.';
+        }
+        return new String(chars);
+    }
+
+    private boolean startsWith(CharSequence prefix) {
+        if (prefix instanceof String) {
+            return name.startsWith((String) prefix);
+        }
+        return regionMatches(name, 0, prefix, 0, prefix.length());
+    }
+
+    private CharSequence view(int start, int end) {
+        return new NameView(name, start, end);
+    }
+
+    @Override
+    public int length() {
+        return name.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return name.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return name.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return name.equals(((InternalName) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    public static InternalName of(String name) {
+        Validate.notNull(name, "name");
+        return new InternalName(name);
+    }
+
+    static boolean regionMatches(CharSequence a, int aOffset, CharSequence b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(aOffset + i) != b.charAt(bOffset + i)) return false;
+        }
+        return true;
+    }
+
+    static boolean contentEquals(CharSequence a, CharSequence b) {
+        int len = a.length();
+        return len == b.length() && regionMatches(a, 0, b, 0, len);
+    }
+
+    // A zero-copy range of a name. Equal to other views with the same content, and hashes like the equivalent String.
+    private static final class NameView implements CharSequence {
+        private final String string;
+        private final int start;
+        private final int end;
+
+        NameView(String string, int start, int end) {
+            this.string = string;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start)
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            return string.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end)
+                throw new IndexOutOfBoundsException("[" + start + ", " + end + ")");
+            return new NameView(string, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return string.substring(start, end);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NameView that = (NameView) o;
+            return contentEquals(this, that);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + string.charAt(i);
+            }
+            return h;
+        }
+    }
+}
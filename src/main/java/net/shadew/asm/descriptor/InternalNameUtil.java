@@ -28,42 +28,33 @@ public final class InternalNameUtil {
     public static String simpleName(String name) {
         Validate.notNull(name, "name");
 
-        String clsName = className(name);
-        int lastDollar = clsName.lastIndexOf('$');
-        return lastDollar == -1 ? clsName : clsName.substring(lastDollar + 1);
+        int start = Math.max(name.lastIndexOf('/'), name.lastIndexOf('$')) + 1;
+        return name.substring(start);
     }
 
     public static boolean isInnerClass(String name) {
         Validate.notNull(name, "name");
-        return className(name).lastIndexOf('$') != -1;
+        return name.lastIndexOf('$') > name.lastIndexOf('/');
     }
 
     public static String outerClass(String name) {
         Validate.notNull(name, "name");
 
-        int lastSlash = name.lastIndexOf('/');
-        String clsName = lastSlash == -1 ? name : name.substring(lastSlash + 1);
-        String pkgName = lastSlash == -1 ? "" : name.substring(0, lastSlash);
-
-        int lastDollar = clsName.lastIndexOf('$');
-        if (lastDollar == -1)
+        int lastDollar = name.lastIndexOf('$');
+        if (lastDollar <= name.lastIndexOf('/'))
             Validate.illegalArgument("Not an inner class: '" + name + "'");
 
-        return pkgName + "/" + clsName.substring(0, lastDollar);
+        return name.substring(0, lastDollar);
     }
 
     public static String rootClass(String name) {
         Validate.notNull(name, "name");
 
-        int lastSlash = name.lastIndexOf('/');
-        String clsName = lastSlash == -1 ? name : name.substring(lastSlash + 1);
-        String pkgName = lastSlash == -1 ? "" : name.substring(0, lastSlash);
-
-        int dollar = clsName.indexOf('$');
+        int dollar = name.indexOf('$', name.lastIndexOf('/') + 1);
         if (dollar == -1)
             return name;
 
-        return pkgName + "/" + clsName.substring(0, dollar);
+        return name.substring(0, dollar);
     }
 
     public static boolean isAnonymous(String name) {
@@ -114,9 +105,7 @@ public final class InternalNameUtil {
         if (pkg.isEmpty()) return true;
         int splitAt = pkg.length();
         if (splitAt >= name.length()) return false;
-        String left = name.substring(0, splitAt);
-        String right = name.substring(splitAt);
-        return right.charAt(0) == '/' && left.equals(pkg);
+        return name.charAt(splitAt) == '/' && name.startsWith(pkg);
     }
 
     public static String renamePackage(String name, String from, String to) {
@@ -127,10 +116,8 @@ public final class InternalNameUtil {
         if (from.isEmpty()) return to + "/" + name;
         int splitAt = from.length();
         if (splitAt >= name.length()) return name;
-        String left = name.substring(0, splitAt);
-        String right = name.substring(splitAt);
-        if (right.charAt(0) == '/' && left.equals(from)) {
-            return to + right;
+        if (name.charAt(splitAt) == '/' && name.startsWith(from)) {
+            return to + name.substring(splitAt);
         }
         return name;
     }
@@ -140,9 +127,7 @@ public final class InternalNameUtil {
         Validate.notNull(cls, "cls");
         int splitAt = cls.length();
         if (splitAt >= name.length()) return false;
-        String left = name.substring(0, splitAt);
-        String right = name.substring(splitAt);
-        return right.charAt(0) == '$' && right.indexOf('/') == -1 && left.equals(cls);
+        return name.charAt(splitAt) == '$' && name.indexOf('/', splitAt) == -1 && name.startsWith(cls);
     }
 
     public static String renameClass(String name, String from, String to) {
@@ -156,10 +141,8 @@ public final class InternalNameUtil {
                 return to;
             return name;
         }
-        String left = name.substring(0, splitAt);
-        String right = name.substring(splitAt);
-        if (right.charAt(0) == '$' && right.indexOf('/') == -1 && left.equals(from)) {
-            return to + right;
+        if (name.charAt(splitAt) == '$' && name.indexOf('/', splitAt) == -1 && name.startsWith(from)) {
+            return to + name.substring(splitAt);
         }
         return name;
     }
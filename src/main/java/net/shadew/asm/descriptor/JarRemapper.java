@@ -0,0 +1,173 @@
+package net.shadew.asm.descriptor;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Remaps all classes in a jar file. Entries are read sequentially, class files are rewritten in parallel on a
+ * {@link ForkJoinPool}, and the output is written with its entries sorted by name (the manifest first), so that the
+ * same input always produces the same output.
+ */
+public final class JarRemapper {
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparingInt(Entry::rank)
+                                                                   .thenComparing(entry -> entry.name);
+
+    private final Remapper remapper;
+    private final ForkJoinPool pool;
+
+    public JarRemapper(Mapper mapper) {
+        this(mapper, ForkJoinPool.commonPool());
+    }
+
+    public JarRemapper(Mapper mapper, ForkJoinPool pool) {
+        this(new AsmRemapper(mapper), pool);
+    }
+
+    public JarRemapper(Mapper mapper, MemberMapper members) {
+        this(mapper, members, ForkJoinPool.commonPool());
+    }
+
+    public JarRemapper(Mapper mapper, MemberMapper members, ForkJoinPool pool) {
+        this(new AsmRemapper(mapper, members), pool);
+    }
+
+    public JarRemapper(Remapper remapper, ForkJoinPool pool) {
+        Validate.notNull(remapper, "remapper");
+        Validate.notNull(pool, "pool");
+        this.remapper = remapper;
+        this.pool = pool;
+    }
+
+    /**
+     * Remaps the jar at {@code input} into {@code output}. The output is written to a temporary file first and moved
+     * into place when complete, so {@code input} and {@code output} may be the same file to remap a jar in place.
+     */
+    public void remap(Path input, Path output) throws IOException {
+        Validate.notNull(input, "input");
+        Validate.notNull(output, "output");
+        try (InputStream in = Files.newInputStream(input)) {
+            AtomicFiles.write(output, out -> remap(in, out));
+        }
+    }
+
+    public void remap(InputStream input, OutputStream output) throws IOException {
+        Validate.notNull(input, "input");
+        Validate.notNull(output, "output");
+
+        List<Entry> entries = read(input);
+
+        List<ForkJoinTask<Entry>> tasks = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            tasks.add(pool.submit(() -> remapEntry(entry)));
+        }
+
+        List<Entry> remapped = new ArrayList<>(entries.size());
+        for (ForkJoinTask<Entry> task : tasks) {
+            try {
+                remapped.add(task.join());
+            } catch (RuntimeException exc) {
+                throw new IOException("Failed to remap jar entry", exc);
+            }
+        }
+        remapped.sort(ENTRY_ORDER);
+
+        write(remapped, output);
+    }
+
+    private Entry remapEntry(Entry entry) {
+        if (!entry.name.endsWith(".class") || entry.name.endsWith("module-info.class")) {
+            return entry;
+        }
+
+        ClassReader reader = new ClassReader(entry.data);
+        ClassWriter writer = new ClassWriter(0);
+        reader.accept(new ClassRemapper(writer, remapper), 0);
+
+        // Keep any prefix, such as the version directory of a multi-release jar
+        String className = reader.getClassName();
+        String name = entry.name;
+        if (name.endsWith(className + ".class")) {
+            String prefix = name.substring(0, name.length() - className.length() - 6);
+            name = prefix + remapper.map(className) + ".class";
+        }
+        return new Entry(name, entry.time, writer.toByteArray());
+    }
+
+    private static List<Entry> read(InputStream input) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ZipInputStream zip = new ZipInputStream(input);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            buffer.reset();
+            int read;
+            while ((read = zip.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            entries.add(new Entry(entry.getName(), entry.getTime(), buffer.toByteArray()));
+        }
+        return entries;
+    }
+
+    private static void write(List<Entry> entries, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        Set<String> names = new HashSet<>();
+        for (Entry entry : entries) {
+            if (!names.add(entry.name)) {
+                throw new ZipException("Duplicate entry after remapping: " + entry.name);
+            }
+            ZipEntry out = new ZipEntry(entry.name);
+            if (entry.time != -1) {
+                out.setTime(entry.time);
+            }
+            zip.putNextEntry(out);
+            zip.write(entry.data);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    private static final class Entry {
+        final String name;
+        final long time;
+        final byte[] data;
+
+        Entry(String name, long time, byte[] data) {
+            this.name = name;
+            this.time = time;
+            this.data = data;
+        }
+
+        int rank() {
+            if (name.equals("META-INF/")) return 0;
+            if (name.equals(MANIFEST)) return 1;
+            return 2;
+        }
+    }
+}
@@ -1,6 +1,17 @@
 package net.shadew.asm.descriptor;
 
+import net.shadew.util.contract.Validate;
+
 @FunctionalInterface
 public interface Mapper {
     String remap(String internalName);
+
+    /**
+     * Returns a mapper that applies this mapper and then the given one. Every lookup goes through both; wrap the result
+     * in a {@link CachingMapper} to memoize it, or compose {@link TableMapper}s to flatten them into a single table.
+     */
+    default Mapper andThen(Mapper next) {
+        Validate.notNull(next, "next");
+        return name -> next.remap(remap(name));
+    }
 }
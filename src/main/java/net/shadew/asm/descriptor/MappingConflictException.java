@@ -0,0 +1,16 @@
+package net.shadew.asm.descriptor;
+
+public class MappingConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public MappingConflictException() {
+    }
+
+    public MappingConflictException(String message) {
+        super(message);
+    }
+
+    public MappingConflictException(String name, String first, String second) {
+        super("Conflicting mappings for '" + name + "': '" + first + "' and '" + second + "'");
+    }
+}
@@ -0,0 +1,12 @@
+package net.shadew.asm.descriptor;
+
+public enum MappingFormat {
+    /** Searge mappings: {@code CL: from to} lines, among package, field and method lines. */
+    SRG,
+    /** Tab-indented Searge mappings, either version 1 or version 2 (with a {@code tsrg2} header). */
+    TSRG,
+    /** Tiny mappings, either version 1 ({@code v1} header) or version 2 ({@code tiny 2} header). */
+    TINY,
+    /** ProGuard and R8 mapping files: {@code original.Name -> obfuscated.Name:} lines. */
+    PROGUARD
+}
@@ -0,0 +1,436 @@
+package net.shadew.asm.descriptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Streams mapping files of the common {@linkplain MappingFormat formats} into a {@link MappingVisitor}. Input is read
+ * through NIO, and files of at least {@value #MAP_THRESHOLD} bytes are memory-mapped instead of copied to the heap.
+ * Lines are split in place and names are passed to the visitor as views on the input bytes: nothing is allocated per
+ * line unless a name contains non-ASCII characters. In Tiny and TSRG v2 files, mappings go from the first namespace to
+ * the second. ProGuard member types are converted to descriptors, which is the only place where a reader builds text.
+ */
+public final class MappingReader {
+    private static final int MAP_THRESHOLD = 1 << 20;
+    private static final int MAX_FIELDS = 8;
+    private static final PrimitiveDescriptor[] PRIMITIVES = {
+        PrimitiveDescriptor.INT, PrimitiveDescriptor.VOID, PrimitiveDescriptor.BOOLEAN, PrimitiveDescriptor.LONG,
+        PrimitiveDescriptor.FLOAT, PrimitiveDescriptor.DOUBLE, PrimitiveDescriptor.BYTE, PrimitiveDescriptor.CHAR,
+        PrimitiveDescriptor.SHORT
+    };
+
+    private final ByteBuffer buffer;
+    private final MappingFormat format;
+    private final MappingVisitor visitor;
+
+    private final Text owner = new Text();
+    private final Text from = new Text();
+    private final Text desc = new Text();
+    private final Text to = new Text();
+    private final StringBuilder javaDesc = new StringBuilder();
+
+    // The class line that members belong to, in formats that list members below their class
+    private int ownerStart = -1;
+    private int ownerEnd;
+
+    // The number of namespaces in a TSRG file, version 1 always has two
+    private int namespaces = 2;
+
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private int fieldCount;
+
+    private int lineNumber;
+    private int lineStart;
+    private int lineEnd;
+
+    private MappingReader(ByteBuffer buffer, MappingFormat format, MappingVisitor visitor) {
+        this.buffer = buffer;
+        this.format = format;
+        this.visitor = visitor;
+        this.owner.buffer = buffer;
+        this.from.buffer = buffer;
+        this.desc.buffer = buffer;
+        this.to.buffer = buffer;
+    }
+
+    private void read() throws IOException {
+        int limit = buffer.limit();
+        int pos = buffer.position();
+        boolean header = true;
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && buffer.get(end) != '\n') end++;
+
+            lineNumber++;
+            lineStart = pos;
+            lineEnd = end > pos && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            pos = end + 1;
+
+            if (isBlankOrComment()) continue;
+
+            switch (format) {
+                case SRG: srgLine(); break;
+                case TSRG: tsrgLine(header); break;
+                case TINY: tinyLine(header); break;
+                case PROGUARD: proguardLine(); break;
+            }
+            header = false;
+        }
+        visitor.visitEnd();
+    }
+
+    // Comments may be indented, R8 for example writes indented metadata comments below members
+    private boolean isBlankOrComment() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') return b == '#';
+        }
+        return true;
+    }
+
+    private void srgLine() throws IOException {
+        splitWhitespace();
+        if (fieldIs(0, "CL:")) {
+            if (fieldCount < 3) throw malformed();
+            visitClass(1, 2, false);
+        } else if (fieldIs(0, "FD:")) {
+            if (fieldCount < 3) throw malformed();
+            int split = lastSlash(1);
+            owner.set(starts[1], split, false);
+            from.set(split + 1, ends[1], false);
+            to.set(lastSlash(2) + 1, ends[2], false);
+            visitor.visitField(owner, from, null, to);
+        } else if (fieldIs(0, "MD:")) {
+            if (fieldCount < 5) throw malformed();
+            int split = lastSlash(1);
+            owner.set(starts[1], split, false);
+            from.set(split + 1, ends[1], false);
+            desc.set(starts[2], ends[2], false);
+            to.set(lastSlash(3) + 1, ends[3], false);
+            visitor.visitMethod(owner, from, desc, to);
+        }
+    }
+
+    private void tsrgLine(boolean header) throws IOException {
+        if (isIndented()) {
+            tsrgMember();
+            return;
+        }
+
+        splitWhitespace();
+        if (header && fieldIs(0, "tsrg2")) {
+            if (fieldCount < 3) throw malformed();
+            namespaces = fieldCount - 1;
+            return;
+        }
+        if (fieldCount < 2) throw malformed();
+
+        // Package mappings end in a slash
+        if (buffer.get(ends[0] - 1) == '/') return;
+        ownerStart = starts[0];
+        ownerEnd = ends[0];
+        visitClass(0, 1, false);
+    }
+
+    private void tsrgMember() throws IOException {
+        // Parameters and other member details are indented twice
+        if (lineEnd - lineStart > 1 && buffer.get(lineStart + 1) == '\t') return;
+
+        splitWhitespace();
+        if (ownerStart < 0 || fieldCount < 2) throw malformed();
+        owner.set(ownerStart, ownerEnd, false);
+
+        // A member line has a name for each namespace, optionally with a descriptor after the first one. Methods
+        // always have a descriptor.
+        if (fieldCount > namespaces) {
+            visitMember(0, 1, 2, buffer.get(starts[1]) == '(');
+        } else {
+            visitMember(0, -1, 1, false);
+        }
+    }
+
+    private void tinyLine(boolean header) throws IOException {
+        splitTabs();
+        if (header) {
+            if (fieldIs(0, "v1") || fieldIs(0, "tiny")) return;
+            throw malformed("Missing tiny header");
+        }
+
+        if (fieldIs(0, "CLASS")) {
+            if (fieldCount < 3) throw malformed();
+            visitClass(1, 2, false);
+        } else if (fieldIs(0, "FIELD") || fieldIs(0, "METHOD")) {
+            if (fieldCount < 5) throw malformed();
+            owner.set(starts[1], ends[1], false);
+            visitMember(3, 2, 4, fieldIs(0, "METHOD"));
+        } else if (fieldIs(0, "c")) {
+            if (fieldCount < 2) throw malformed();
+            ownerStart = starts[1];
+            ownerEnd = ends[1];
+
+            // An empty or missing target name means the name is the same in both namespaces
+            if (fieldCount == 2 || starts[2] == ends[2]) return;
+            visitClass(1, 2, false);
+        } else if (fieldIs(1, "f") || fieldIs(1, "m")) {
+            if (starts[0] != ends[0]) return;
+            if (ownerStart < 0 || fieldCount < 5) throw malformed();
+            if (starts[4] == ends[4]) return;
+            owner.set(ownerStart, ownerEnd, false);
+            visitMember(3, 2, 4, buffer.get(starts[1]) == 'm');
+        }
+    }
+
+    private void proguardLine() throws IOException {
+        if (isIndented()) {
+            proguardMember();
+            return;
+        }
+
+        splitWhitespace();
+        if (fieldCount < 3 || !fieldIs(1, "->") || buffer.get(ends[2] - 1) != ':') throw malformed();
+        ends[2]--;
+        ownerStart = starts[0];
+        ownerEnd = ends[0];
+        visitClass(0, 2, true);
+    }
+
+    private void proguardMember() throws IOException {
+        splitWhitespace();
+        if (ownerStart < 0 || fieldCount < 4 || !fieldIs(2, "->")) throw malformed();
+
+        // Line numbers precede the type as 'start:end:'
+        int typeStart = starts[0];
+        for (int i = ends[0] - 1; i >= typeStart; i--) {
+            if (buffer.get(i) == ':') {
+                typeStart = i + 1;
+                break;
+            }
+        }
+
+        int nameStart = starts[1];
+        int nameEnd = nameStart;
+        while (nameEnd < ends[1] && buffer.get(nameEnd) != '(') nameEnd++;
+        boolean method = nameEnd < ends[1];
+
+        // Names with dots refer to methods inlined from other classes
+        for (int i = nameStart; i < nameEnd; i++) {
+            if (buffer.get(i) == '.') return;
+        }
+
+        javaDesc.setLength(0);
+        if (method) {
+            javaDesc.append('(');
+            int pos = nameEnd + 1;
+            while (pos < ends[1] && buffer.get(pos) != ')') {
+                int end = pos;
+                while (end < ends[1] && buffer.get(end) != ',' && buffer.get(end) != ')') end++;
+                appendJavaType(pos, end);
+                pos = buffer.get(end) == ',' ? end + 1 : end;
+            }
+            javaDesc.append(')');
+        }
+        appendJavaType(typeStart, ends[0]);
+
+        owner.set(ownerStart, ownerEnd, true);
+        from.set(nameStart, nameEnd, false);
+        to.set(starts[3], ends[3], false);
+        if (method) {
+            visitor.visitMethod(owner, from, javaDesc, to);
+        } else {
+            visitor.visitField(owner, from, javaDesc, to);
+        }
+    }
+
+    private void appendJavaType(int start, int end) throws IOException {
+        while (end - start > 2 && buffer.get(end - 1) == ']' && buffer.get(end - 2) == '[') {
+            javaDesc.append('[');
+            end -= 2;
+        }
+        if (start == end) throw malformed();
+        for (PrimitiveDescriptor primitive : PRIMITIVES) {
+            String code = primitive.toCode();
+            if (code.length() == end - start && regionIs(start, code)) {
+                javaDesc.append(primitive.prefix());
+                return;
+            }
+        }
+        javaDesc.append('L').append(from.set(start, end, true)).append(';');
+    }
+
+    private void visitMember(int nameField, int descField, int toField, boolean method) {
+        from.set(starts[nameField], ends[nameField], false);
+        to.set(starts[toField], ends[toField], false);
+        Text descriptor = descField < 0 ? null : desc.set(starts[descField], ends[descField], false);
+        if (method) {
+            visitor.visitMethod(owner, from, descriptor, to);
+        } else {
+            visitor.visitField(owner, from, descriptor, to);
+        }
+    }
+
+    private int lastSlash(int field) throws IOException {
+        for (int i = ends[field] - 1; i >= starts[field]; i--) {
+            if (buffer.get(i) == '/') return i;
+        }
+        throw malformed();
+    }
+
+    private void visitClass(int fromField, int toField, boolean dotted) {
+        visitor.visitClass(
+            from.set(starts[fromField], ends[fromField], dotted),
+            to.set(starts[toField], ends[toField], dotted)
+        );
+    }
+
+    private boolean isIndented() {
+        byte b = buffer.get(lineStart);
+        return b == '\t' || b == ' ';
+    }
+
+    private boolean fieldIs(int field, String value) {
+        if (field >= fieldCount) return false;
+        return ends[field] - starts[field] == value.length() && regionIs(starts[field], value);
+    }
+
+    private boolean regionIs(int start, String value) {
+        for (int i = 0, l = value.length(); i < l; i++) {
+            if (buffer.get(start + i) != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private void splitWhitespace() {
+        fieldCount = 0;
+        int pos = lineStart;
+        while (pos < lineEnd && fieldCount < MAX_FIELDS) {
+            byte b = buffer.get(pos);
+            if (b == ' ' || b == '\t') {
+                pos++;
+                continue;
+            }
+
+            starts[fieldCount] = pos;
+            while (pos < lineEnd && (b = buffer.get(pos)) != ' ' && b != '\t') pos++;
+            ends[fieldCount++] = pos;
+        }
+    }
+
+    private void splitTabs() {
+        fieldCount = 0;
+        int pos = lineStart;
+        while (fieldCount < MAX_FIELDS) {
+            starts[fieldCount] = pos;
+            while (pos < lineEnd && buffer.get(pos) != '\t') pos++;
+            ends[fieldCount++] = pos;
+            if (pos++ >= lineEnd) break;
+        }
+    }
+
+    private IOException malformed() {
+        return malformed("Malformed line");
+    }
+
+    private IOException malformed(String message) {
+        return new IOException(message + " in " + format + " mappings at line " + lineNumber);
+    }
+
+    public static void read(ByteBuffer buffer, MappingFormat format, MappingVisitor visitor) throws IOException {
+        Validate.notNull(buffer, "buffer");
+        Validate.notNull(format, "format");
+        Validate.notNull(visitor, "visitor");
+        new MappingReader(buffer, format, visitor).read();
+    }
+
+    public static void read(Path path, MappingFormat format, MappingVisitor visitor) throws IOException {
+        Validate.notNull(path, "path");
+        read(open(path), format, visitor);
+    }
+
+    public static TableMapper load(Path path, MappingFormat format) throws IOException {
+        TableMapper.Builder builder = TableMapper.builder();
+        read(path, format, builder);
+        return builder.build();
+    }
+
+    private static ByteBuffer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // A view on a name in the input. Names with non-ASCII characters are decoded once, since UTF-8 can't be indexed.
+    private static final class Text implements CharSequence {
+        ByteBuffer buffer;
+        int start;
+        int end;
+        boolean dotted;
+        String decoded;
+
+        Text set(int start, int end, boolean dotted) {
+            this.start = start;
+            this.end = end;
+            this.dotted = dotted;
+            this.decoded = null;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) < 0) {
+                    decode();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private void decode() {
+            byte[] bytes = new byte[end - start];
+            for (int i = start; i < end; i++) {
+                bytes[i - start] = buffer.get(i);
+            }
+            String out = new String(bytes, StandardCharsets.UTF_8);
+            decoded = dotted ? out.replace('.', '/') : out;
+        }
+
+        @Override
+        public int length() {
+            return decoded != null ? decoded.length() : end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (decoded != null) return decoded.charAt(index);
+            char c = (char) buffer.get(start + index);
+            return dotted && c == '.' ? '/' : c;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (decoded != null) return decoded;
+            char[] chars = new char[end - start];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.shadew.asm.descriptor;
+
+/**
+ * Receives the entries of a mapping set, for example from a {@link MappingReader}. Names are passed as
+ * {@link CharSequence}s that may be views into a reused buffer: they are only valid for the duration of the call, and
+ * must be copied if they are retained. Members are identified by their owner, name and descriptor, and are visited
+ * after their owner. Field descriptors are {@code null} when the format does not record them.
+ */
+public abstract class MappingVisitor {
+    public void visitClass(CharSequence from, CharSequence to) {
+    }
+
+    public void visitField(CharSequence owner, CharSequence name, CharSequence descriptor, CharSequence to) {
+    }
+
+    public void visitMethod(CharSequence owner, CharSequence name, CharSequence descriptor, CharSequence to) {
+    }
+
+    public void visitEnd() {
+    }
+}
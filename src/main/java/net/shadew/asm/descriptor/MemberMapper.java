@@ -0,0 +1,23 @@
+package net.shadew.asm.descriptor;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * Maps the names of fields and methods, identified by their owner, name and descriptor. Owners and descriptors are in
+ * terms of the unmapped names. Names without a mapping are returned unchanged.
+ */
+public interface MemberMapper {
+    String mapField(String owner, String name, String descriptor);
+
+    String mapMethod(String owner, String name, String descriptor);
+
+    default String mapField(String owner, String name, TypeDescriptor descriptor) {
+        Validate.notNull(descriptor, "descriptor");
+        return mapField(owner, name, descriptor.toString());
+    }
+
+    default String mapMethod(String owner, String name, MethodDescriptor descriptor) {
+        Validate.notNull(descriptor, "descriptor");
+        return mapMethod(owner, name, descriptor.toString());
+    }
+}
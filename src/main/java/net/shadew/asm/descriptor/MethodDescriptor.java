@@ -1,21 +1,88 @@
 package net.shadew.asm.descriptor;
 
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import net.shadew.util.contract.Validate;
 
 public final class MethodDescriptor extends Descriptor {
-    private final TypeDescriptor[] parameters;
-    private final TypeDescriptor returnType;
+    // Reflected methods and constructors, cached in their declaring class so that we never keep a class or its loader
+    // alive. Filled one member at a time, unlike ReflectedMembers.
+    private static final ClassValue<Map<Executable, MethodDescriptor>> REFLECTED
+        = new ClassValue<Map<Executable, MethodDescriptor>>() {
+        @Override
+        protected Map<Executable, MethodDescriptor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final TypeDescriptor[] NO_PARAMETERS = {};
+    private static final char[] NO_PARAMETER_OFFSETS = {1};
+
+    // A method descriptor is either built from its parts, or backed by its descriptor string plus a table with the
+    // offset of each parameter and of the closing ')'. In the latter case the parts are only materialized on demand.
+    private final String source;
+    private final char[] offsets;
+
+    // Packed parameter and return sizes: parametersSize << 2 | returnSize
+    private final int sizes;
+
+    private volatile TypeDescriptor[] parameters;
+
+    // Memoized; a thread that sees a stale null just computes the same immutable value again
+    private TypeDescriptor returnType;
+    private String string;
+    private Type asm;
+    private Slots slots;
 
     MethodDescriptor(TypeDescriptor returnType, TypeDescriptor... parameters) {
+        this.source = null;
+        this.offsets = null;
         this.parameters = parameters;
         this.returnType = returnType;
+
+        int parsSize = 0;
+        for (TypeDescriptor desc : parameters) {
+            parsSize += desc.size();
+        }
+        this.sizes = parsSize << 2 | returnType.size();
+    }
+
+    MethodDescriptor(TypeDescriptor returnType, TypeDescriptor[] parameters, Type asm) {
+        this(returnType, parameters);
+        this.asm = asm;
+    }
+
+    MethodDescriptor(String descriptor, char[] offsets, int sizes) {
+        this.source = descriptor;
+        this.offsets = offsets.length == 1 && offsets[0] == 1 ? NO_PARAMETER_OFFSETS : offsets;
+        this.sizes = sizes;
+    }
+
+    boolean compact() {
+        return offsets != null;
+    }
+
+    private TypeDescriptor[] params() {
+        TypeDescriptor[] out = parameters;
+        if (out == null) {
+            int count = offsets.length - 1;
+            out = count == 0 ? NO_PARAMETERS : new TypeDescriptor[count];
+            for (int i = 0; i < count; i++) {
+                out[i] = DescriptorParser.trusted(source, offsets[i], offsets[i + 1]);
+            }
+            parameters = out;
+        }
+        return out;
     }
 
     @Override
@@ -24,14 +91,15 @@ public final class MethodDescriptor extends Descriptor {
     }
 
     public TypeDescriptor parameter(int index) {
-        return parameters[index];
+        return params()[index];
     }
 
     public int parameterCount() {
-        return parameters.length;
+        return offsets != null ? offsets.length - 1 : parameters.length;
     }
 
     public TypeDescriptor[] parameterArray() {
+        TypeDescriptor[] parameters = params();
         int len = parameters.length;
         TypeDescriptor[] out = new TypeDescriptor[len];
         System.arraycopy(parameters, 0, out, 0, len);
@@ -39,29 +107,72 @@ public final class MethodDescriptor extends Descriptor {
     }
 
     public Stream<TypeDescriptor> parameters() {
-        return Stream.of(parameters);
+        return Stream.of(params());
     }
 
     public TypeDescriptor returnType() {
-        return returnType;
+        TypeDescriptor out = returnType;
+        if (out == null) {
+            returnType = out = DescriptorParser.trusted(source, offsets[offsets.length - 1] + 1, source.length());
+        }
+        return out;
     }
 
     public int parametersSize() {
-        int parsSize = 0;
-        for (TypeDescriptor desc : parameters) {
-            parsSize += desc.size();
-        }
-        return parsSize;
+        return sizes >> 2;
     }
 
     public int returnSize() {
-        return returnType.size();
+        return sizes & 3;
     }
 
     public int totalSize() {
         return parametersSize() + returnSize();
     }
 
+    public int argumentSlot(int index) {
+        return slots().argumentSlots[index];
+    }
+
+    public int argumentSlot(int index, boolean instance) {
+        return slots().argumentSlots[index] + (instance ? 1 : 0);
+    }
+
+    public int slotArgument(int slot) {
+        return slots().slotArguments[slot];
+    }
+
+    public int slotArgument(int slot, boolean instance) {
+        if (instance) {
+            if (slot == 0) return -1;
+            slot--;
+        }
+        return slots().slotArguments[slot];
+    }
+
+    public int loadOpcode(int index) {
+        return slots().loadOpcodes[index];
+    }
+
+    public int storeOpcode(int index) {
+        return slots().loadOpcodes[index] + (Opcodes.ISTORE - Opcodes.ILOAD);
+    }
+
+    private Slots slots() {
+        Slots out = slots;
+        if (out == null) {
+            slots = out = new Slots(this);
+        }
+        return out;
+    }
+
+    private char parameterPrefix(int index) {
+        if (offsets != null) {
+            return source.charAt(offsets[index]);
+        }
+        return parameters[index].prefix();
+    }
+
     @Override
     public void accept(DescriptorVisitor visitor) {
         visitor.visitMethod(this);
@@ -69,39 +180,64 @@ public final class MethodDescriptor extends Descriptor {
 
     @Override
     public MethodDescriptor remap(Mapper mapper) {
-        int i = 0;
-        TypeDescriptor[] outpars = new TypeDescriptor[parameters.length];
-        for (TypeDescriptor td : parameters) {
-            outpars[i] = td.remap(mapper);
-            i++;
+        // Only copy the parameters once one of them actually changes
+        TypeDescriptor[] parameters = params();
+        TypeDescriptor returnType = returnType();
+        TypeDescriptor[] outpars = null;
+        for (int i = 0, l = parameters.length; i < l; i++) {
+            TypeDescriptor mapped = parameters[i].remap(mapper);
+            if (mapped != parameters[i]) {
+                if (outpars == null) outpars = parameterArray();
+                outpars[i] = mapped;
+            }
         }
-        return new MethodDescriptor(returnType.remap(mapper), outpars);
+        TypeDescriptor outret = returnType.remap(mapper);
+        if (outpars == null && outret == returnType) return this;
+        return new MethodDescriptor(outret, outpars == null ? parameters : outpars);
     }
 
     @Override
     public String toString() {
-        return String.format(
-            "(%s)%s",
-            parameters().map(Descriptor::toString).collect(Collectors.joining()),
-            returnType.toString()
-        );
+        if (source != null) return source;
+
+        String out = string;
+        if (out == null) {
+            StringBuilder builder = new StringBuilder("(");
+            for (TypeDescriptor param : parameters) {
+                builder.append(param.toString());
+            }
+            string = out = builder.append(')').append(returnType.toString()).toString();
+        }
+        return out;
     }
 
     @Override
     public Type toAsm() {
-        int len = parameters.length;
-        Type[] args = new Type[len];
-        for (int i = 0; i < len; i++) {
-            args[i] = parameters[i].toAsm();
+        Type out = asm;
+        if (out == null) {
+            asm = out = Type.getMethodType(toString());
+        }
+        return out;
+    }
+
+    public Type[] asmParameterTypes() {
+        return TypeDescriptor.asmTypes(params());
+    }
+
+    public MethodType toMethodType(ClassLoader loader) throws ClassNotFoundException {
+        TypeDescriptor[] params = params();
+        Class<?>[] types = new Class<?>[params.length];
+        for (int i = 0, l = params.length; i < l; i++) {
+            types[i] = params[i].toClass(loader);
         }
-        return Type.getMethodType(returnType.toAsm(), args);
+        return MethodType.methodType(returnType().toClass(loader), types);
     }
 
     @Override
     public String toCode() {
         return String.format(
             "%s (%s)",
-            returnType.toCode(),
+            returnType().toCode(),
             parameters().map(Descriptor::toCode).collect(Collectors.joining(", "))
         );
     }
@@ -110,7 +246,7 @@ public final class MethodDescriptor extends Descriptor {
     public String toCode(String memberName) {
         return String.format(
             "%s %s(%s)",
-            returnType.toCode(),
+            returnType().toCode(),
             memberName,
             parameters().map(Descriptor::toCode).collect(Collectors.joining(", "))
         );
@@ -121,18 +257,57 @@ public final class MethodDescriptor extends Descriptor {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         MethodDescriptor that = (MethodDescriptor) o;
-        return Arrays.equals(parameters, that.parameters) && returnType.equals(that.returnType);
+
+        // The descriptor string identifies a method descriptor, and is always at hand for compact descriptors
+        return sizes == that.sizes && toString().equals(that.toString());
     }
 
     @Override
     public int hashCode() {
-        int result = returnType.hashCode();
-        result = 31 * result + Arrays.hashCode(parameters);
-        return result;
+        return toString().hashCode();
+    }
+
+    // Local variable layout of the arguments, computed once per descriptor. Slots are counted from zero, without an
+    // implicit 'this'. Second halves of long and double arguments map back to argument -1.
+    private static final class Slots {
+        final int[] argumentSlots;
+        final int[] slotArguments;
+        final byte[] loadOpcodes;
+
+        Slots(MethodDescriptor desc) {
+            int count = desc.parameterCount();
+            argumentSlots = new int[count];
+            slotArguments = new int[desc.parametersSize()];
+            loadOpcodes = new byte[count];
+
+            int slot = 0;
+            for (int i = 0; i < count; i++) {
+                char prefix = desc.parameterPrefix(i);
+                argumentSlots[i] = slot;
+                slotArguments[slot++] = i;
+                if (prefix == 'J' || prefix == 'D') {
+                    slotArguments[slot++] = -1;
+                }
+                loadOpcodes[i] = (byte) loadOpcode(prefix);
+            }
+        }
+
+        private static int loadOpcode(char prefix) {
+            switch (prefix) {
+                case 'J': return Opcodes.LLOAD;
+                case 'F': return Opcodes.FLOAD;
+                case 'D': return Opcodes.DLOAD;
+                case 'L':
+                case '[': return Opcodes.ALOAD;
+                default: return Opcodes.ILOAD;
+            }
+        }
     }
 
     public static MethodDescriptor parse(String desc) {
         Validate.notNull(desc, "desc");
+        DescriptorCache cache = DescriptorCache.global();
+        if (cache != null) return cache.parseMethod(desc);
         return DescriptorParser.method(desc);
     }
 
@@ -143,14 +318,50 @@ public final class MethodDescriptor extends Descriptor {
         return new MethodDescriptor(returnType, parameters);
     }
 
+    public static MethodDescriptor asm(Type type) {
+        Validate.notNull(type, "type");
+        Validate.isTrue(type.getSort() == Type.METHOD, "'type' is not a method type");
+        return fromAsm(type).asMethod();
+    }
+
     public static MethodDescriptor reflect(Method method) {
         Validate.notNull(method, "method");
-        Class<?>[] types = method.getParameterTypes();
+        return reflectMember(method);
+    }
+
+    public static MethodDescriptor reflect(Constructor<?> constructor) {
+        Validate.notNull(constructor, "constructor");
+        return reflectMember(constructor);
+    }
+
+    private static MethodDescriptor reflectMember(Executable member) {
+        Map<Executable, MethodDescriptor> cache = REFLECTED.get(member.getDeclaringClass());
+        MethodDescriptor out = cache.get(member);
+        if (out == null) {
+            out = computeReflect(member);
+            MethodDescriptor existing = cache.putIfAbsent(member, out);
+            if (existing != null) out = existing;
+        }
+        return out;
+    }
+
+    static MethodDescriptor computeReflect(Executable member) {
+        TypeDescriptor ret = member instanceof Method
+                             ? TypeDescriptor.reflect(((Method) member).getReturnType())
+                             : PrimitiveDescriptor.VOID;
+        return reflect(ret, member.getParameterTypes());
+    }
+
+    public static MethodDescriptor reflect(MethodType type) {
+        Validate.notNull(type, "type");
+        return reflect(TypeDescriptor.reflect(type.returnType()), type.parameterArray());
+    }
+
+    static MethodDescriptor reflect(TypeDescriptor ret, Class<?>[] types) {
         TypeDescriptor[] pars = new TypeDescriptor[types.length];
         for (int i = 0, l = types.length; i < l; i++) {
             pars[i] = TypeDescriptor.reflect(types[i]);
         }
-        TypeDescriptor ret = TypeDescriptor.reflect(method.getReturnType());
         return new MethodDescriptor(ret, pars);
     }
 }
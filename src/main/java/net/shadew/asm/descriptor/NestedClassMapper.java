@@ -0,0 +1,72 @@
+package net.shadew.asm.descriptor;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A {@link Mapper} that derives the names of nested classes from the mapping of their outer class. A nested class
+ * that the delegate leaves unchanged takes its outer class's mapped name, followed by its own unchanged suffix, so
+ * {@code a/B$C} and {@code a/B$1} follow a mapping of {@code a/B} without explicit entries. An explicit mapping of a
+ * nested class always wins, and deeper nesting levels are derived from it in turn. When the delegate is a
+ * {@link TableMapper}, any entry counts as explicit, including one that maps a nested class to its own name. Any other
+ * delegate can't tell those apart from unmapped names, so there a nested class counts as mapped only when the delegate
+ * changes its name. Results are cached, so each outer class is resolved only once.
+ */
+public final class NestedClassMapper implements Mapper {
+    private final Mapper delegate;
+    private final TableMapper table;
+    private final BoundedCache<String, String> cache;
+
+    public NestedClassMapper(Mapper delegate) {
+        Validate.notNull(delegate, "delegate");
+        this.delegate = delegate;
+        this.table = delegate instanceof TableMapper ? (TableMapper) delegate : null;
+        this.cache = new BoundedCache<>(0);
+    }
+
+    public NestedClassMapper(Mapper delegate, int maximumSize) {
+        Validate.notNull(delegate, "delegate");
+        Validate.positive(maximumSize, "maximumSize");
+        this.delegate = delegate;
+        this.table = delegate instanceof TableMapper ? (TableMapper) delegate : null;
+        this.cache = new BoundedCache<>(maximumSize);
+    }
+
+    @Override
+    public String remap(String internalName) {
+        return cache.get(internalName, this::compute);
+    }
+
+    private String compute(String name) {
+        if (table != null) {
+            String mapped = table.get(name);
+            if (mapped != null) return mapped;
+        } else {
+            String mapped = delegate.remap(name);
+            if (!mapped.equals(name)) return mapped;
+        }
+
+        int lastDollar = name.lastIndexOf('$');
+        if (lastDollar <= name.lastIndexOf('/') + 1 || lastDollar == name.length() - 1) return name;
+
+        String outer = name.substring(0, lastDollar);
+        String mappedOuter = remap(outer);
+        if (mappedOuter.equals(outer)) return name;
+        return mappedOuter + name.substring(lastDollar);
+    }
+
+    public Mapper delegate() {
+        return delegate;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
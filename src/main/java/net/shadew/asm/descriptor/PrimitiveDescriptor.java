@@ -5,25 +5,29 @@ import org.objectweb.asm.Type;
 import net.shadew.util.contract.Validate;
 
 public class PrimitiveDescriptor extends TypeDescriptor {
-    public static final PrimitiveDescriptor BYTE = new PrimitiveDescriptor('B', 1, Type.BYTE_TYPE, "byte");
-    public static final PrimitiveDescriptor SHORT = new PrimitiveDescriptor('S', 1, Type.SHORT_TYPE, "short");
-    public static final PrimitiveDescriptor INT = new PrimitiveDescriptor('I', 1, Type.INT_TYPE, "int");
-    public static final PrimitiveDescriptor LONG = new PrimitiveDescriptor('J', 2, Type.LONG_TYPE, "long");
-    public static final PrimitiveDescriptor FLOAT = new PrimitiveDescriptor('F', 1, Type.FLOAT_TYPE, "float");
-    public static final PrimitiveDescriptor DOUBLE = new PrimitiveDescriptor('D', 2, Type.DOUBLE_TYPE, "double");
-    public static final PrimitiveDescriptor BOOLEAN = new PrimitiveDescriptor('Z', 1, Type.BOOLEAN_TYPE, "boolean");
-    public static final PrimitiveDescriptor CHAR = new PrimitiveDescriptor('C', 1, Type.CHAR_TYPE, "char");
-    public static final PrimitiveDescriptor VOID = new PrimitiveDescriptor('V', 0, Type.VOID_TYPE, "void");
+    public static final PrimitiveDescriptor BYTE = new PrimitiveDescriptor('B', 1, Type.BYTE_TYPE, byte.class, "byte");
+    public static final PrimitiveDescriptor SHORT = new PrimitiveDescriptor('S', 1, Type.SHORT_TYPE, short.class, "short");
+    public static final PrimitiveDescriptor INT = new PrimitiveDescriptor('I', 1, Type.INT_TYPE, int.class, "int");
+    public static final PrimitiveDescriptor LONG = new PrimitiveDescriptor('J', 2, Type.LONG_TYPE, long.class, "long");
+    public static final PrimitiveDescriptor FLOAT = new PrimitiveDescriptor('F', 1, Type.FLOAT_TYPE, float.class, "float");
+    public static final PrimitiveDescriptor DOUBLE = new PrimitiveDescriptor('D', 2, Type.DOUBLE_TYPE, double.class, "double");
+    public static final PrimitiveDescriptor BOOLEAN = new PrimitiveDescriptor('Z', 1, Type.BOOLEAN_TYPE, boolean.class, "boolean");
+    public static final PrimitiveDescriptor CHAR = new PrimitiveDescriptor('C', 1, Type.CHAR_TYPE, char.class, "char");
+    public static final PrimitiveDescriptor VOID = new PrimitiveDescriptor('V', 0, Type.VOID_TYPE, void.class, "void");
 
     private final char prefix;
     private final int size;
     private final Type type;
+    private final Class<?> cls;
     private final String code;
+    private final String string;
 
-    private PrimitiveDescriptor(char desc, int size, Type type, String code) {
+    private PrimitiveDescriptor(char desc, int size, Type type, Class<?> cls, String code) {
         this.prefix = desc;
+        this.string = String.valueOf(desc);
         this.size = size;
         this.type = type;
+        this.cls = cls;
         this.code = code;
     }
 
@@ -54,7 +58,7 @@ public class PrimitiveDescriptor extends TypeDescriptor {
 
     @Override
     public String toString() {
-        return prefix + "";
+        return string;
     }
 
     @Override
@@ -62,6 +66,11 @@ public class PrimitiveDescriptor extends TypeDescriptor {
         return type;
     }
 
+    @Override
+    public Class<?> toClass(ClassLoader loader) {
+        return cls;
+    }
+
     @Override
     public String toCode() {
         return code;
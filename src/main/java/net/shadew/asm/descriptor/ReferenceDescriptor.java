@@ -7,10 +7,19 @@ import net.shadew.util.contract.Validate;
 public final class ReferenceDescriptor extends TypeDescriptor {
     private final String internalName;
 
+    private String string;
+    private Type asm;
+    private InternalName name;
+
     ReferenceDescriptor(String internalName) {
         this.internalName = internalName;
     }
 
+    ReferenceDescriptor(String internalName, Type asm) {
+        this.internalName = internalName;
+        this.asm = asm;
+    }
+
     @Override
     public boolean isReference() {
         return true;
@@ -23,17 +32,30 @@ public final class ReferenceDescriptor extends TypeDescriptor {
 
     @Override
     public String toString() {
-        return "L" + internalName + ";";
+        String out = string;
+        if (out == null) {
+            string = out = "L" + internalName + ";";
+        }
+        return out;
     }
 
     @Override
     public Type toAsm() {
-        return Type.getObjectType(internalName);
+        Type out = asm;
+        if (out == null) {
+            asm = out = Type.getObjectType(internalName);
+        }
+        return out;
+    }
+
+    @Override
+    public Class<?> toClass(ClassLoader loader) throws ClassNotFoundException {
+        return ClassResolver.resolve(internalName.replace('/', '.'), loader);
     }
 
     @Override
     public String toCode() {
-        return InternalNameUtil.toCode(internalName);
+        return name().toCode();
     }
 
     @Override
@@ -50,6 +72,14 @@ public final class ReferenceDescriptor extends TypeDescriptor {
         return internalName;
     }
 
+    public InternalName name() {
+        InternalName out = name;
+        if (out == null) {
+            name = out = InternalName.of(internalName);
+        }
+        return out;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -65,7 +95,9 @@ public final class ReferenceDescriptor extends TypeDescriptor {
 
     @Override
     public ReferenceDescriptor remap(Mapper mapper) {
-        return new ReferenceDescriptor(mapper.remap(internalName));
+        String mapped = mapper.remap(internalName);
+        if (mapped.equals(internalName)) return this;
+        return new ReferenceDescriptor(mapped);
     }
 
     public static ReferenceDescriptor parse(String desc) {
@@ -77,4 +109,11 @@ public final class ReferenceDescriptor extends TypeDescriptor {
         Validate.notNull(internalName, "internalName");
         return new ReferenceDescriptor(internalName);
     }
+
+    public static ReferenceDescriptor of(InternalName name) {
+        Validate.notNull(name, "name");
+        ReferenceDescriptor out = new ReferenceDescriptor(name.toString());
+        out.name = name;
+        return out;
+    }
 }
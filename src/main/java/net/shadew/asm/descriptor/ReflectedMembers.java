@@ -0,0 +1,96 @@
+package net.shadew.asm.descriptor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * The descriptors of all members declared by a class, converted in one pass and cached per class through a
+ * {@link ClassValue}, so the cache never keeps a class or its class loader alive. This is meant for bulk lookups: it
+ * loads the types of every declared member up front. Single members are better described through
+ * {@link MethodDescriptor#reflect(Method)} and {@link MethodDescriptor#reflect(Constructor)}, which cache each member
+ * on its own as it is requested.
+ */
+public final class ReflectedMembers {
+    private static final ClassValue<ReflectedMembers> MEMBERS = new ClassValue<ReflectedMembers>() {
+        @Override
+        protected ReflectedMembers computeValue(Class<?> type) {
+            return new ReflectedMembers(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Map<Method, MethodDescriptor> methods;
+    private final Map<Constructor<?>, MethodDescriptor> constructors;
+    private final Map<Field, TypeDescriptor> fields;
+
+    private ReflectedMembers(Class<?> type) {
+        this.type = type;
+
+        Method[] declaredMethods = type.getDeclaredMethods();
+        Map<Method, MethodDescriptor> methods = new HashMap<>(declaredMethods.length * 2);
+        for (Method method : declaredMethods) {
+            methods.put(method, MethodDescriptor.computeReflect(method));
+        }
+
+        Constructor<?>[] declaredConstructors = type.getDeclaredConstructors();
+        Map<Constructor<?>, MethodDescriptor> constructors = new HashMap<>(declaredConstructors.length * 2);
+        for (Constructor<?> constructor : declaredConstructors) {
+            constructors.put(constructor, MethodDescriptor.computeReflect(constructor));
+        }
+
+        Field[] declaredFields = type.getDeclaredFields();
+        Map<Field, TypeDescriptor> fields = new HashMap<>(declaredFields.length * 2);
+        for (Field field : declaredFields) {
+            fields.put(field, TypeDescriptor.reflect(field));
+        }
+
+        this.methods = Collections.unmodifiableMap(methods);
+        this.constructors = Collections.unmodifiableMap(constructors);
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    public Map<Method, MethodDescriptor> methods() {
+        return methods;
+    }
+
+    public Map<Constructor<?>, MethodDescriptor> constructors() {
+        return constructors;
+    }
+
+    public Map<Field, TypeDescriptor> fields() {
+        return fields;
+    }
+
+    public MethodDescriptor method(Method method) {
+        Validate.notNull(method, "method");
+        MethodDescriptor out = methods.get(method);
+        return out != null ? out : MethodDescriptor.reflect(method);
+    }
+
+    public MethodDescriptor constructor(Constructor<?> constructor) {
+        Validate.notNull(constructor, "constructor");
+        MethodDescriptor out = constructors.get(constructor);
+        return out != null ? out : MethodDescriptor.reflect(constructor);
+    }
+
+    public TypeDescriptor field(Field field) {
+        Validate.notNull(field, "field");
+        TypeDescriptor out = fields.get(field);
+        return out != null ? out : TypeDescriptor.reflect(field);
+    }
+
+    public static ReflectedMembers of(Class<?> type) {
+        Validate.notNull(type, "type");
+        return MEMBERS.get(type);
+    }
+}
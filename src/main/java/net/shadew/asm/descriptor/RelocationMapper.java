@@ -0,0 +1,210 @@
+package net.shadew.asm.descriptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A {@link Mapper} that relocates packages and classes according to a set of rename rules. The rules are compiled
+ * into a trie over the segments of internal names, split at each {@code /} and {@code $}, so a lookup only walks the
+ * name once regardless of how many rules there are. When multiple rules match, the one with the longest prefix wins.
+ * A single rule behaves exactly like {@link InternalNameUtil#renamePackage} or {@link InternalNameUtil#renameClass}.
+ */
+public final class RelocationMapper implements Mapper {
+    private final Node root;
+    private final int ruleCount;
+
+    private RelocationMapper(Node root, int ruleCount) {
+        this.root = root;
+        this.ruleCount = ruleCount;
+    }
+
+    @Override
+    public String remap(String internalName) {
+        Validate.notNull(internalName, "internalName");
+
+        Node node = root;
+        String target = null;
+        int split = 0;
+
+        // An empty package prefix matches everything, it wraps the name in a new package
+        if (node.packageTarget != null) {
+            target = node.packageTarget.isEmpty() ? null : node.packageTarget + "/";
+        }
+
+        int len = internalName.length();
+        int lastSlash = internalName.lastIndexOf('/');
+        int pos = 0;
+        char separator = '/';
+        while (pos < len) {
+            int hash = 0;
+            int end = pos;
+            char c = 0;
+            while (end < len && (c = internalName.charAt(end)) != '/' && c != '$') {
+                hash = 31 * hash + c;
+                end++;
+            }
+
+            node = node.child(separator, internalName, pos, end, hash);
+            if (node == null) break;
+
+            if (end == len) {
+                if (node.classTarget != null) {
+                    target = node.classTarget;
+                    split = end;
+                }
+            } else if (c == '/') {
+                if (node.packageTarget != null) {
+                    target = node.packageTarget;
+                    split = end;
+                }
+            } else if (end > lastSlash && node.classTarget != null) {
+                target = node.classTarget;
+                split = end;
+            }
+
+            separator = c;
+            pos = end + 1;
+        }
+
+        if (target == null) return internalName;
+        if (split == 0) return target + internalName;
+        if (split == len) return target;
+        return target + internalName.substring(split);
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+        private int ruleCount;
+
+        Builder() {
+        }
+
+        public Builder renamePackage(String from, String to) {
+            Validate.notNull(from, "from");
+            Validate.notNull(to, "to");
+            Node node = root.path(from);
+            if (node.packageTarget == null) ruleCount++;
+            node.packageTarget = to;
+            return this;
+        }
+
+        public Builder renameClass(String from, String to) {
+            Validate.notNull(from, "from");
+            Validate.notNull(to, "to");
+            Validate.isFalse(from.isEmpty(), "'from' is empty");
+            Node node = root.path(from);
+            if (node.classTarget == null) ruleCount++;
+            node.classTarget = to;
+            return this;
+        }
+
+        public RelocationMapper build() {
+            return new RelocationMapper(root.freeze(), ruleCount);
+        }
+    }
+
+    private static final class Node {
+        // Target names of rules ending at this node, null when there is no such rule
+        String packageTarget;
+        String classTarget;
+
+        // Children after a '/' and after a '$', as open addressing tables with a power of two size
+        String[] slashKeys;
+        Node[] slashChildren;
+        String[] dollarKeys;
+        Node[] dollarChildren;
+
+        // Only used while building
+        Map<String, Node> slashBuilder;
+        Map<String, Node> dollarBuilder;
+
+        Node path(String name) {
+            Node node = this;
+            if (name.isEmpty()) return node;
+
+            int pos = 0;
+            char separator = '/';
+            while (true) {
+                int end = pos;
+                while (end < name.length() && name.charAt(end) != '/' && name.charAt(end) != '$') end++;
+
+                Map<String, Node> children;
+                if (separator == '/') {
+                    if (node.slashBuilder == null) node.slashBuilder = new HashMap<>();
+                    children = node.slashBuilder;
+                } else {
+                    if (node.dollarBuilder == null) node.dollarBuilder = new HashMap<>();
+                    children = node.dollarBuilder;
+                }
+                node = children.computeIfAbsent(name.substring(pos, end), k -> new Node());
+
+                if (end == name.length()) return node;
+                separator = name.charAt(end);
+                pos = end + 1;
+            }
+        }
+
+        Node freeze() {
+            Node out = new Node();
+            out.packageTarget = packageTarget;
+            out.classTarget = classTarget;
+            if (slashBuilder != null) {
+                out.slashKeys = keys(slashBuilder);
+                out.slashChildren = children(slashBuilder, out.slashKeys);
+            }
+            if (dollarBuilder != null) {
+                out.dollarKeys = keys(dollarBuilder);
+                out.dollarChildren = children(dollarBuilder, out.dollarKeys);
+            }
+            return out;
+        }
+
+        Node child(char separator, String name, int start, int end, int hash) {
+            String[] keys = separator == '/' ? slashKeys : dollarKeys;
+            if (keys == null) return null;
+
+            int mask = keys.length - 1;
+            int len = end - start;
+            for (int i = mix(hash) & mask; ; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key == null) return null;
+                if (key.length() == len && key.hashCode() == hash && name.regionMatches(start, key, 0, len)) {
+                    return separator == '/' ? slashChildren[i] : dollarChildren[i];
+                }
+            }
+        }
+
+        private static String[] keys(Map<String, Node> map) {
+            int cap = Integer.highestOneBit(Math.max(map.size() * 2 - 1, 1)) << 1;
+            String[] keys = new String[cap];
+            for (String key : map.keySet()) {
+                int i = mix(key.hashCode()) & cap - 1;
+                while (keys[i] != null) i = (i + 1) & cap - 1;
+                keys[i] = key;
+            }
+            return keys;
+        }
+
+        private static Node[] children(Map<String, Node> map, String[] keys) {
+            Node[] children = new Node[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) children[i] = map.get(keys[i]).freeze();
+            }
+            return children;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ hash >>> 16;
+        }
+    }
+}
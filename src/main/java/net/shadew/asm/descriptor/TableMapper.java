@@ -0,0 +1,522 @@
+package net.shadew.asm.descriptor;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import net.shadew.util.contract.Validate;
+
+/**
+ * A {@link Mapper} backed by a fixed table of class name mappings. All names are stored back to back in one shared
+ * character arena and indexed by an open addressing table of entry numbers, so a table costs a handful of bytes per
+ * name instead of two strings and a map node per entry. Lookups compare against the arena in place. Mapped names are
+ * turned into strings on their first lookup and reused afterwards. Names without a mapping are returned unchanged.
+ * <p>
+ * Field and method mappings are stored in the same arena and looked up by a hash combined from the hashes of owner,
+ * name and descriptor. Strings cache their hash and descriptors cache their string, so a lookup never builds a key.
+ * Fields mapped without a descriptor match any descriptor.
+ * <p>
+ * Tables can be composed, inverted and merged into new tables, so that a chain of mappings costs a single lookup.
+ */
+public final class TableMapper implements Mapper, MemberMapper {
+    private static final int FIELD = 0;
+    private static final int METHOD = 1;
+
+    private final char[] arena;
+    private final int[] entries; // from start, from length, to start, to length
+    private final int[] hashes;
+    private final int[] table;   // entry + 1, 0 is empty
+    private final int size;
+
+    private final int[] members; // kind, owner start, owner length, name start, name length, desc start, desc length, to start, to length
+    private final int[] memberHashes;
+    private final int[] memberTable;
+    private final int[] ownerTable; // a member + 1 for each distinct owner
+    private final int memberCount;
+
+    private final String[] values;
+    private final String[] memberValues;
+
+    private TableMapper(Builder builder) {
+        this.arena = Arrays.copyOf(builder.arena, builder.arenaLength);
+        this.size = builder.size;
+        this.entries = Arrays.copyOf(builder.entries, size * 4);
+        this.hashes = Arrays.copyOf(builder.hashes, size);
+        this.table = builder.table.clone();
+        this.memberCount = builder.memberCount;
+        this.members = Arrays.copyOf(builder.members, memberCount * 9);
+        this.memberHashes = Arrays.copyOf(builder.memberHashes, memberCount);
+        this.memberTable = builder.memberTable.clone();
+        this.values = new String[size];
+        this.memberValues = new String[memberCount];
+
+        int[] ownerTable = new int[tableLength(memberCount)];
+        for (int i = 0; i < memberCount; i++) {
+            CharSequence owner = CharBuffer.wrap(arena, members[i * 9 + 1], members[i * 9 + 2]);
+            int hash = hash(owner);
+            if (findOwner(ownerTable, arena, members, owner, hash) < 0) {
+                insert(ownerTable, i, hash);
+            }
+        }
+        this.ownerTable = ownerTable;
+    }
+
+    @Override
+    public String remap(String internalName) {
+        int entry = find(table, arena, entries, hashes, internalName, internalName.hashCode());
+        return entry < 0 ? internalName : value(entry);
+    }
+
+    public String get(CharSequence name) {
+        Validate.notNull(name, "name");
+        int entry = find(table, arena, entries, hashes, name, hash(name));
+        return entry < 0 ? null : value(entry);
+    }
+
+    public boolean contains(CharSequence name) {
+        Validate.notNull(name, "name");
+        return find(table, arena, entries, hashes, name, hash(name)) >= 0;
+    }
+
+    @Override
+    public String mapField(String owner, String name, String descriptor) {
+        int member = findField(owner, name, descriptor);
+        return member < 0 ? name : memberValue(member);
+    }
+
+    @Override
+    public String mapMethod(String owner, String name, String descriptor) {
+        int member = findMethod(owner, name, descriptor);
+        return member < 0 ? name : memberValue(member);
+    }
+
+    public MemberMapper withHierarchy(ClassHierarchy hierarchy) {
+        Validate.notNull(hierarchy, "hierarchy");
+        return new InheritingMemberMapper(this, hierarchy);
+    }
+
+    @Override
+    public Mapper andThen(Mapper next) {
+        Validate.notNull(next, "next");
+        if (next instanceof TableMapper) return andThen((TableMapper) next);
+        return Mapper.super.andThen(next);
+    }
+
+    /**
+     * Flattens this table followed by the given table into one table. Member keys of the next table are in terms of
+     * the names this table maps to, and are translated back through the inverse of this table's class mappings.
+     */
+    public TableMapper andThen(TableMapper next) {
+        Validate.notNull(next, "next");
+        Builder builder = new Builder();
+
+        for (int i = 0; i < size; i++) {
+            builder.visitClass(from(i), next.remap(value(i)));
+        }
+        for (int i = 0; i < next.size; i++) {
+            String from = next.from(i);
+            if (!contains(from)) builder.visitClass(from, next.value(i));
+        }
+
+        boolean[] used = new boolean[next.memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            String owner = memberOwner(i);
+            String desc = memberDesc(i);
+            String nextOwner = remap(owner);
+            String nextDesc = desc == null ? null : Descriptor.remapDescriptor(desc, this);
+            int kind = members[i * 9];
+            int member = kind == FIELD
+                         ? next.findField(nextOwner, memberValue(i), nextDesc)
+                         : next.findMethod(nextOwner, memberValue(i), nextDesc);
+            if (member >= 0) used[member] = true;
+            builder.addMember(kind, owner, memberName(i), desc, member < 0 ? memberValue(i) : next.memberValue(member));
+        }
+
+        TableMapper inverse = null;
+        for (int i = 0; i < next.memberCount; i++) {
+            if (used[i]) continue;
+            if (inverse == null) inverse = classInverse(false);
+
+            String nextOwner = next.memberOwner(i);
+            String owner = inverse.get(nextOwner);
+            // An owner this table doesn't map passes through unchanged, so the member is reached under its own name too
+            boolean passesThrough = !contains(nextOwner);
+            if (owner == null && !passesThrough) {
+                // Nothing maps onto this owner, the member can't be reached through this table
+                continue;
+            }
+
+            int kind = next.members[i * 9];
+            String name = next.memberName(i);
+            String desc = next.memberDesc(i);
+            String flatDesc = desc == null ? null : Descriptor.remapDescriptor(desc, inverse);
+            String value = next.memberValue(i);
+            if (owner != null) builder.addMember(kind, owner, name, flatDesc, value);
+            if (passesThrough && !nextOwner.equals(owner)) builder.addMember(kind, nextOwner, name, flatDesc, value);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the reverse of this table.
+     *
+     * @throws MappingConflictException If two names map to the same name
+     */
+    public TableMapper inverse() {
+        TableMapper classes = classInverse(true);
+        Builder builder = new Builder();
+        classes.accept(builder);
+
+        for (int i = 0; i < memberCount; i++) {
+            int kind = members[i * 9];
+            String owner = remap(memberOwner(i));
+            String name = memberValue(i);
+            String desc = memberDesc(i);
+            String mappedDesc = desc == null ? null : Descriptor.remapDescriptor(desc, this);
+
+            String existing = builder.memberValue(kind, owner, name, mappedDesc);
+            if (existing != null && !existing.equals(memberName(i))) {
+                throw new MappingConflictException(owner + "." + name + (desc == null ? "" : " " + mappedDesc), existing, memberName(i));
+            }
+            builder.addMember(kind, owner, name, mappedDesc, memberName(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a table with the mappings of both this and the given table.
+     *
+     * @throws MappingConflictException If both tables map the same name differently
+     */
+    public TableMapper merge(TableMapper other) {
+        Validate.notNull(other, "other");
+        Builder builder = new Builder();
+        accept(builder);
+
+        for (int i = 0; i < other.size; i++) {
+            String from = other.from(i);
+            String existing = get(from);
+            if (existing != null && !existing.equals(other.value(i))) {
+                throw new MappingConflictException(from, existing, other.value(i));
+            }
+            builder.visitClass(from, other.value(i));
+        }
+        for (int i = 0; i < other.memberCount; i++) {
+            int kind = other.members[i * 9];
+            String owner = other.memberOwner(i);
+            String name = other.memberName(i);
+            String desc = other.memberDesc(i);
+            String existing = builder.memberValue(kind, owner, name, desc);
+            if (existing != null && !existing.equals(other.memberValue(i))) {
+                throw new MappingConflictException(owner + "." + name + (desc == null ? "" : " " + desc), existing, other.memberValue(i));
+            }
+            builder.addMember(kind, owner, name, desc, other.memberValue(i));
+        }
+        return builder.build();
+    }
+
+    private TableMapper classInverse(boolean strict) {
+        Builder builder = new Builder();
+        for (int i = 0; i < size; i++) {
+            String to = value(i);
+            String existing = builder.classValue(to);
+            if (strict && existing != null) {
+                throw new MappingConflictException(to, existing, from(i));
+            }
+            builder.visitClass(to, from(i));
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int memberCount() {
+        return memberCount;
+    }
+
+    public void accept(MappingVisitor visitor) {
+        Validate.notNull(visitor, "visitor");
+        for (int i = 0; i < size; i++) {
+            visitor.visitClass(from(i), value(i));
+        }
+        for (int i = 0; i < memberCount; i++) {
+            if (members[i * 9] == FIELD) {
+                visitor.visitField(memberOwner(i), memberName(i), memberDesc(i), memberValue(i));
+            } else {
+                visitor.visitMethod(memberOwner(i), memberName(i), memberDesc(i), memberValue(i));
+            }
+        }
+        visitor.visitEnd();
+    }
+
+    int findField(String owner, String name, String descriptor) {
+        if (memberCount == 0) return -1;
+        int member = descriptor == null ? -1 : findMember(memberTable, arena, members, memberHashes, FIELD, owner, name, descriptor);
+        return member >= 0 ? member : findMember(memberTable, arena, members, memberHashes, FIELD, owner, name, null);
+    }
+
+    int findMethod(String owner, String name, String descriptor) {
+        if (memberCount == 0) return -1;
+        return findMember(memberTable, arena, members, memberHashes, METHOD, owner, name, descriptor);
+    }
+
+    boolean hasMembers(String owner) {
+        return memberCount != 0 && findOwner(ownerTable, arena, members, owner, owner.hashCode()) >= 0;
+    }
+
+    String from(int entry) {
+        return new String(arena, entries[entry * 4], entries[entry * 4 + 1]);
+    }
+
+    String value(int entry) {
+        String out = values[entry];
+        if (out == null) {
+            values[entry] = out = new String(arena, entries[entry * 4 + 2], entries[entry * 4 + 3]);
+        }
+        return out;
+    }
+
+    String memberOwner(int member) {
+        return new String(arena, members[member * 9 + 1], members[member * 9 + 2]);
+    }
+
+    String memberName(int member) {
+        return new String(arena, members[member * 9 + 3], members[member * 9 + 4]);
+    }
+
+    String memberDesc(int member) {
+        int length = members[member * 9 + 6];
+        return length < 0 ? null : new String(arena, members[member * 9 + 5], length);
+    }
+
+    String memberValue(int member) {
+        String out = memberValues[member];
+        if (out == null) {
+            memberValues[member] = out = new String(arena, members[member * 9 + 7], members[member * 9 + 8]);
+        }
+        return out;
+    }
+
+    static int hash(CharSequence name) {
+        if (name instanceof String) return name.hashCode();
+        int h = 0;
+        for (int i = 0, l = name.length(); i < l; i++) {
+            h = 31 * h + name.charAt(i);
+        }
+        return h;
+    }
+
+    static int memberHash(int kind, int ownerHash, int nameHash, int descHash) {
+        return ((ownerHash * 31 + nameHash) * 31 + descHash) * 31 + kind;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static int tableLength(int count) {
+        return Integer.highestOneBit(Math.max(count * 2 - 1, 1)) << 1;
+    }
+
+    private static void insert(int[] table, int entry, int hash) {
+        int mask = table.length - 1;
+        int i = mix(hash) & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = entry + 1;
+    }
+
+    private static int find(int[] table, char[] arena, int[] entries, int[] hashes, CharSequence name, int hash) {
+        int mask = table.length - 1;
+        int len = name.length();
+        for (int i = mix(hash) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i] - 1;
+            if (entry < 0) return -1;
+            if (hashes[entry] == hash && entries[entry * 4 + 1] == len && matches(arena, entries[entry * 4], name, len)) {
+                return entry;
+            }
+        }
+    }
+
+    private static int findMember(int[] table, char[] arena, int[] members, int[] hashes, int kind,
+                                  CharSequence owner, CharSequence name, CharSequence desc) {
+        int hash = memberHash(kind, hash(owner), hash(name), desc == null ? 0 : hash(desc));
+        int descLen = desc == null ? -1 : desc.length();
+        int mask = table.length - 1;
+        for (int i = mix(hash) & mask; ; i = (i + 1) & mask) {
+            int member = table[i] - 1;
+            if (member < 0) return -1;
+            int o = member * 9;
+            if (hashes[member] == hash && members[o] == kind
+                    && members[o + 2] == owner.length() && members[o + 4] == name.length() && members[o + 6] == descLen
+                    && matches(arena, members[o + 3], name, name.length())
+                    && matches(arena, members[o + 1], owner, owner.length())
+                    && (desc == null || matches(arena, members[o + 5], desc, descLen))) {
+                return member;
+            }
+        }
+    }
+
+    private static int findOwner(int[] table, char[] arena, int[] members, CharSequence owner, int hash) {
+        int mask = table.length - 1;
+        int len = owner.length();
+        for (int i = mix(hash) & mask; ; i = (i + 1) & mask) {
+            int member = table[i] - 1;
+            if (member < 0) return -1;
+            int o = member * 9;
+            if (members[o + 2] == len && matches(arena, members[o + 1], owner, len)) return member;
+        }
+    }
+
+    private static boolean matches(char[] arena, int start, CharSequence name, int len) {
+        for (int i = 0; i < len; i++) {
+            if (arena[start + i] != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends MappingVisitor {
+        private char[] arena = new char[1024];
+        private int arenaLength;
+        private int[] entries = new int[64];
+        private int[] hashes = new int[16];
+        private int[] table = new int[32];
+        private int size;
+
+        private int[] members = new int[16 * 9];
+        private int[] memberHashes = new int[16];
+        private int[] memberTable = new int[32];
+        private int memberCount;
+
+        Builder() {
+        }
+
+        /**
+         * Adds a class mapping, replacing any earlier mapping of the same name.
+         */
+        @Override
+        public void visitClass(CharSequence from, CharSequence to) {
+            Validate.notNull(from, "from");
+            Validate.notNull(to, "to");
+
+            int hash = hash(from);
+            int entry = find(table, arena, entries, hashes, from, hash);
+            if (entry < 0) {
+                entry = size++;
+                if (hashes.length < size) {
+                    hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                }
+                hashes[entry] = hash;
+                entries[entry * 4] = append(from);
+                entries[entry * 4 + 1] = from.length();
+
+                if (size * 2 > table.length) {
+                    table = rehash(table.length * 2, hashes, size);
+                } else {
+                    insert(table, entry, hash);
+                }
+            }
+
+            // A replaced value stays in the arena, which is fine as duplicates are rare
+            entries[entry * 4 + 2] = append(to);
+            entries[entry * 4 + 3] = to.length();
+        }
+
+        @Override
+        public void visitField(CharSequence owner, CharSequence name, CharSequence descriptor, CharSequence to) {
+            addMember(FIELD, owner, name, descriptor, to);
+        }
+
+        @Override
+        public void visitMethod(CharSequence owner, CharSequence name, CharSequence descriptor, CharSequence to) {
+            Validate.notNull(descriptor, "descriptor");
+            addMember(METHOD, owner, name, descriptor, to);
+        }
+
+        void addMember(int kind, CharSequence owner, CharSequence name, CharSequence desc, CharSequence to) {
+            Validate.notNull(owner, "owner");
+            Validate.notNull(name, "name");
+            Validate.notNull(to, "to");
+
+            int member = findMember(memberTable, arena, members, memberHashes, kind, owner, name, desc);
+            if (member < 0) {
+                member = memberCount++;
+                if (memberHashes.length < memberCount) {
+                    memberHashes = Arrays.copyOf(memberHashes, memberHashes.length * 2);
+                    members = Arrays.copyOf(members, members.length * 2);
+                }
+                int hash = memberHash(kind, hash(owner), hash(name), desc == null ? 0 : hash(desc));
+                int o = member * 9;
+                memberHashes[member] = hash;
+                members[o] = kind;
+                members[o + 1] = append(owner);
+                members[o + 2] = owner.length();
+                members[o + 3] = append(name);
+                members[o + 4] = name.length();
+                members[o + 5] = desc == null ? 0 : append(desc);
+                members[o + 6] = desc == null ? -1 : desc.length();
+
+                if (memberCount * 2 > memberTable.length) {
+                    memberTable = rehash(memberTable.length * 2, memberHashes, memberCount);
+                } else {
+                    insert(memberTable, member, hash);
+                }
+            }
+
+            members[member * 9 + 7] = append(to);
+            members[member * 9 + 8] = to.length();
+        }
+
+        String classValue(CharSequence from) {
+            int entry = find(table, arena, entries, hashes, from, hash(from));
+            return entry < 0 ? null : new String(arena, entries[entry * 4 + 2], entries[entry * 4 + 3]);
+        }
+
+        String memberValue(int kind, CharSequence owner, CharSequence name, CharSequence desc) {
+            int member = findMember(memberTable, arena, members, memberHashes, kind, owner, name, desc);
+            return member < 0 ? null : new String(arena, members[member * 9 + 7], members[member * 9 + 8]);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int memberCount() {
+            return memberCount;
+        }
+
+        public TableMapper build() {
+            return new TableMapper(this);
+        }
+
+        private int append(CharSequence name) {
+            int len = name.length();
+            if (arenaLength + len > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + len));
+            }
+            int start = arenaLength;
+            if (name instanceof String) {
+                ((String) name).getChars(0, len, arena, start);
+            } else {
+                for (int i = 0; i < len; i++) {
+                    arena[start + i] = name.charAt(i);
+                }
+            }
+            arenaLength += len;
+            return start;
+        }
+
+        private static int[] rehash(int length, int[] hashes, int count) {
+            int[] table = new int[length];
+            for (int i = 0; i < count; i++) {
+                insert(table, i, hashes[i]);
+            }
+            return table;
+        }
+    }
+}
@@ -1,11 +1,52 @@
 package net.shadew.asm.descriptor;
 
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 import net.shadew.util.contract.Validate;
 
 public abstract class TypeDescriptor extends Descriptor {
+    private static final AtomicReferenceFieldUpdater<TypeDescriptor, ArrayDescriptor[]> ARRAYS
+        = AtomicReferenceFieldUpdater.newUpdater(TypeDescriptor.class, ArrayDescriptor[].class, "arrays");
+
+    // Shared array types with this type as root, indexed by dimensions - 1. Never used on arrays themselves.
+    private volatile ArrayDescriptor[] arrays;
+
+    // Cached in the Class itself, so that we never keep a class or its loader alive
+    private static final ClassValue<TypeDescriptor> REFLECTED = new ClassValue<TypeDescriptor>() {
+        @Override
+        protected TypeDescriptor computeValue(Class<?> type) {
+            return computeReflect(type);
+        }
+    };
+
     TypeDescriptor() {
     }
 
+    ArrayDescriptor arrayType(int dimensions) {
+        // The table is kept alive by shared singletons such as the primitives, so it must stay bounded
+        Validate.isTrue(dimensions <= ArrayDescriptor.MAX_DIMENSIONS, "'dimensions' exceeds 255");
+        ArrayDescriptor[] current = arrays;
+        while (true) {
+            if (current != null && dimensions <= current.length && current[dimensions - 1] != null) {
+                return current[dimensions - 1];
+            }
+
+            ArrayDescriptor[] updated = current == null
+                                        ? new ArrayDescriptor[dimensions]
+                                        : Arrays.copyOf(current, Math.max(current.length, dimensions));
+            ArrayDescriptor out = new ArrayDescriptor(this, dimensions);
+            updated[dimensions - 1] = out;
+            if (ARRAYS.compareAndSet(this, current, updated)) {
+                return out;
+            }
+            current = arrays;
+        }
+    }
+
     @Override
     public final boolean isType() {
         return true;
@@ -15,6 +56,8 @@ public abstract class TypeDescriptor extends Descriptor {
 
     public abstract char prefix();
 
+    public abstract Class<?> toClass(ClassLoader loader) throws ClassNotFoundException;
+
     @Override
     public void accept(DescriptorVisitor visitor) {
         visitor.visitType(this);
@@ -30,11 +73,57 @@ public abstract class TypeDescriptor extends Descriptor {
 
     public static TypeDescriptor parse(String desc) {
         Validate.notNull(desc, "desc");
+        DescriptorCache cache = DescriptorCache.global();
+        if (cache != null) return cache.parseType(desc);
         return DescriptorParser.type(desc);
     }
 
+    public static TypeDescriptor asm(Type type) {
+        Validate.notNull(type, "type");
+        Validate.isFalse(type.getSort() == Type.METHOD, "'type' is a method type");
+        return fromAsm(type).asType();
+    }
+
+    public static TypeDescriptor[] asm(Type... types) {
+        Validate.notNull(types, "types");
+        Validate.notNullElements(types, "types");
+        for (Type type : types) {
+            Validate.isFalse(type.getSort() == Type.METHOD, "'types' contains a method type");
+        }
+        return fromAsm(types);
+    }
+
+    static TypeDescriptor[] fromAsm(Type[] types) {
+        int len = types.length;
+        TypeDescriptor[] out = new TypeDescriptor[len];
+        for (int i = 0; i < len; i++) {
+            out[i] = fromAsm(types[i]).asType();
+        }
+        return out;
+    }
+
+    public static Type[] asmTypes(TypeDescriptor... descs) {
+        Validate.notNull(descs, "descs");
+        Validate.notNullElements(descs, "descs");
+        int len = descs.length;
+        Type[] out = new Type[len];
+        for (int i = 0; i < len; i++) {
+            out[i] = descs[i].toAsm();
+        }
+        return out;
+    }
+
     public static TypeDescriptor reflect(Class<?> cls) {
         Validate.notNull(cls, "cls");
+        return REFLECTED.get(cls);
+    }
+
+    public static TypeDescriptor reflect(Field field) {
+        Validate.notNull(field, "field");
+        return reflect(field.getType());
+    }
+
+    static TypeDescriptor computeReflect(Class<?> cls) {
         if (cls.isPrimitive()) {
             if (cls == void.class) {
                 return PrimitiveDescriptor.VOID;
@@ -65,7 +154,12 @@ public abstract class TypeDescriptor extends Descriptor {
             }
             return Validate.illegalState();
         } else if (cls.isArray()) {
-            return new ArrayDescriptor(reflect(cls.getComponentType()));
+            int dimensions = 0;
+            while (cls.isArray()) {
+                cls = cls.getComponentType();
+                dimensions++;
+            }
+            return ArrayDescriptor.get(reflect(cls), dimensions);
         } else {
             return new ReferenceDescriptor(cls.getName().replace('.', '/'));
         }
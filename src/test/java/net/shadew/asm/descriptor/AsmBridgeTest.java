@@ -0,0 +1,42 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Type;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmBridgeTest {
+    @Test
+    void testFromAsm() {
+        Type array = Type.getType("[[[Ljava/lang/String;");
+        ArrayDescriptor desc = Descriptor.asm(array).asArray();
+        assertEquals(3, desc.dimensions());
+        assertEquals(ReferenceDescriptor.of("java/lang/String"), desc.root());
+        assertEquals(array, desc.toAsm());
+
+        Type method = Type.getMethodType("(I[JLjava/lang/Object;)V");
+        MethodDescriptor mdesc = MethodDescriptor.asm(method);
+        assertEquals("(I[JLjava/lang/Object;)V", mdesc.toString());
+        assertSame(method, mdesc.toAsm());
+
+        assertThrows(IllegalArgumentException.class, () -> TypeDescriptor.asm(method));
+        assertThrows(IllegalArgumentException.class, () -> MethodDescriptor.asm(array));
+    }
+
+    @Test
+    void testBulk() {
+        Type[] types = {Type.INT_TYPE, Type.getType("[Z"), Type.getObjectType("a/B")};
+        TypeDescriptor[] descs = TypeDescriptor.asm(types);
+        assertEquals("[Z", descs[1].toString());
+        assertArrayEquals(types, TypeDescriptor.asmTypes(descs));
+        assertArrayEquals(types, MethodDescriptor.of(PrimitiveDescriptor.VOID, descs).asmParameterTypes());
+    }
+
+    @Test
+    void testRemapperFallback() {
+        AsmRemapper remapper = new AsmRemapper(name -> name.equals("a/B") ? "x/Y" : name);
+        assertEquals("[Lx/Y;", remapper.mapDesc("[La/B;"));
+        assertEquals("Lfoo-bar/\u00c4;", remapper.mapDesc("Lfoo-bar/\u00c4;"));
+        assertEquals("(Lfoo-bar/\u00c4;Lx/Y;)V", remapper.mapMethodDesc("(Lfoo-bar/\u00c4;La/B;)V"));
+    }
+}
@@ -0,0 +1,55 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingMapperTest {
+    @Test
+    void testMemoization() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingMapper mapper = new CachingMapper(name -> {
+            calls.incrementAndGet();
+            return "mapped/" + name;
+        });
+
+        assertEquals("mapped/a/B", mapper.remap("a/B"));
+        assertEquals("mapped/a/B", mapper.remap("a/B"));
+        assertEquals(1, calls.get());
+        assertEquals(0.5, mapper.stats().hitRate());
+    }
+
+    @Test
+    void testConcurrentAccess() {
+        CachingMapper mapper = new CachingMapper(name -> name.toUpperCase(), 64);
+        IntStream.range(0, 10000).parallel().forEach(i -> {
+            String name = "pkg/Class" + i % 100;
+            assertEquals(name.toUpperCase(), mapper.remap(name));
+        });
+
+        assertEquals(10000, mapper.stats().requestCount());
+    }
+
+    @Test
+    void testConcurrentClear() {
+        CachingMapper mapper = new CachingMapper(name -> name.toUpperCase(), 64);
+        IntStream.range(0, 20000).parallel().forEach(i -> {
+            if (i % 500 == 0) {
+                mapper.clear();
+            } else {
+                mapper.remap("pkg/Class" + i % 1000);
+            }
+        });
+
+        // The count must match the entries that are actually left, and every one of them must still be evictable
+        mapper.clear();
+        assertEquals(0, mapper.size());
+        for (int i = 0; i < 1000; i++) {
+            mapper.remap("pkg/Other" + i);
+        }
+        assertEquals(64, mapper.size());
+    }
+}
@@ -0,0 +1,60 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorCacheTest {
+    @Test
+    void testHitsAndMisses() {
+        DescriptorCache cache = new DescriptorCache(16);
+        Descriptor first = cache.parse("(Ljava/lang/String;)V");
+        Descriptor second = cache.parse("(Ljava/lang/String;)V");
+
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testKindChecks() {
+        DescriptorCache cache = new DescriptorCache(16);
+        assertEquals("int", cache.parseType("I").toCode());
+        assertThrows(DescriptorFormatException.class, () -> cache.parseMethod("I"));
+        assertThrows(DescriptorFormatException.class, () -> cache.parseType("()V"));
+        assertThrows(DescriptorFormatException.class, () -> cache.parse("Lunfinished"));
+    }
+
+    @Test
+    void testEviction() {
+        DescriptorCache cache = new DescriptorCache(4);
+        for (int i = 0; i < 16; i++) {
+            cache.parse("()V");
+        }
+        for (int i = 0; i < 32; i++) {
+            cache.parse("Lpkg/Class" + i + ";");
+        }
+
+        assertTrue(cache.size() <= 4);
+        assertEquals(29, cache.stats().evictionCount());
+
+        // The frequently used descriptor survives the scan
+        long hits = cache.stats().hitCount();
+        cache.parse("()V");
+        assertEquals(hits + 1, cache.stats().hitCount());
+    }
+
+    @Test
+    void testGlobal() {
+        DescriptorCache cache = new DescriptorCache(16);
+        DescriptorCache.setGlobal(cache);
+        try {
+            assertSame(MethodDescriptor.parse("()V"), MethodDescriptor.parse("()V"));
+            assertSame(TypeDescriptor.parse("[I"), Descriptor.parse("[I"));
+            assertThrows(DescriptorFormatException.class, () -> MethodDescriptor.parse("[I"));
+        } finally {
+            DescriptorCache.setGlobal(null);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorInternerTest {
+    @Test
+    void testIdentity() {
+        DescriptorInterner interner = new DescriptorInterner();
+        assertSame(interner.reference("java/lang/String"), interner.reference("java/lang/String"));
+        assertSame(interner.parse("[[I"), interner.array(PrimitiveDescriptor.INT, 2));
+        assertSame(
+            interner.parseMethod("(Ljava/lang/String;[I)V"),
+            interner.method(PrimitiveDescriptor.VOID, ReferenceDescriptor.of("java/lang/String"), ArrayDescriptor.of(PrimitiveDescriptor.INT))
+        );
+    }
+
+    @Test
+    void testSharedChildren() {
+        DescriptorInterner interner = new DescriptorInterner();
+        MethodDescriptor method = interner.parseMethod("(Ljava/lang/String;)[Ljava/lang/String;");
+        assertSame(method.parameter(0), method.returnType().asArray().element());
+        assertSame(interner.reference("java/lang/String"), method.parameter(0));
+    }
+}
@@ -2,6 +2,10 @@ package net.shadew.asm.descriptor;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DescriptorParserTest {
@@ -27,10 +31,25 @@ public class DescriptorParserTest {
         assertEquals("int[][][]", ArrayDescriptor.parse("[[[I").toCode());
         assertEquals(3, ArrayDescriptor.parse("[[[I").dimensions());
         assertEquals(PrimitiveDescriptor.INT, ArrayDescriptor.parse("[[[I").root());
+        assertSame(ArrayDescriptor.parse("[[I"), ArrayDescriptor.parse("[[[I").element());
+        assertSame(ArrayDescriptor.of(PrimitiveDescriptor.INT, 3), ArrayDescriptor.of(ArrayDescriptor.parse("[I"), 2));
+        assertEquals(ArrayDescriptor.parse("[[LFoo;"), ArrayDescriptor.of(ReferenceDescriptor.of("Foo"), 2));
+        assertNotEquals(ArrayDescriptor.parse("[[LFoo;"), ArrayDescriptor.parse("[LFoo;"));
 
         assertThrows(DescriptorFormatException.class, () -> ArrayDescriptor.parse("[[V"));
         assertThrows(DescriptorFormatException.class, () -> ArrayDescriptor.parse("[["));
         assertThrows(DescriptorFormatException.class, () -> ArrayDescriptor.parse("I"));
+
+        char[] dims = new char[256];
+        Arrays.fill(dims, '[');
+        String maxArray = new String(dims, 1, 255) + "I";
+        String tooDeep = new String(dims) + "I";
+        assertEquals(255, ArrayDescriptor.parse(maxArray).dimensions());
+        assertThrows(DescriptorFormatException.class, () -> ArrayDescriptor.parse(tooDeep));
+        assertThrows(DescriptorFormatException.class, () -> MethodDescriptor.parse("(" + tooDeep + ")V"));
+        assertThrows(DescriptorFormatException.class, () -> Descriptor.remapDescriptor(tooDeep, name -> name));
+        assertThrows(IllegalArgumentException.class, () -> ArrayDescriptor.of(PrimitiveDescriptor.INT, 256));
+        assertThrows(IllegalArgumentException.class, () -> ArrayDescriptor.of(ArrayDescriptor.parse(maxArray)));
     }
 
     @Test
@@ -107,4 +126,41 @@ public class DescriptorParserTest {
         assertThrows(DescriptorFormatException.class, () -> TypeDescriptor.parse("-invalid-"));
         assertThrows(DescriptorFormatException.class, () -> TypeDescriptor.parse("Lextra;Linput;"));
     }
+
+    @Test
+    void testReader() {
+        DescriptorReader reader = new DescriptorReader();
+        String line = "MD: foo/Bar/baz (ILjava/lang/String;)[J foo/Bar/qux";
+
+        assertEquals(39, reader.readMethod(line, 16, line.length() - 16));
+        assertEquals("(ILjava/lang/String;)[J", reader.result().toString());
+
+        StringBuilder builder = new StringBuilder("xx[[Lfoo/Bar;yy");
+        assertEquals(13, reader.readType(builder, 2, 13));
+        assertEquals(2, reader.result().asArray().dimensions());
+
+        assertThrows(DescriptorFormatException.class, () -> reader.readType(builder, 2, 6));
+        assertThrows(DescriptorFormatException.class, () -> reader.readMethod("(I", 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.readType("I", 1, 1));
+    }
+
+    @Test
+    void testBytes() {
+        DescriptorReader reader = new DescriptorReader();
+        byte[] pool = "\u0001(Ljava/lang/String;J)V\u0001Ljava/lang/Object;".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(23, reader.readMethod(pool, 1, 22));
+        assertEquals("(Ljava/lang/String;J)V", reader.result().toString());
+        assertEquals(42, reader.readType(ByteBuffer.wrap(pool), 24, 18));
+        assertEquals("java/lang/Object", reader.result().asReference().internalName());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(pool.length);
+        direct.put(pool);
+        assertEquals(23, reader.skipMethod(direct, 1, 22));
+        assertEquals(42, reader.skipDescriptor(direct, 24, 18));
+
+        byte[] unicode = "Lcaf\u00e9;".getBytes(StandardCharsets.UTF_8);
+        assertThrows(DescriptorFormatException.class, () -> reader.readType(unicode, 0, unicode.length));
+        assertThrows(DescriptorFormatException.class, () -> reader.skipMethod(pool, 1, 21));
+    }
 }
@@ -0,0 +1,61 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorPoolTest {
+    @Test
+    void testHandles() {
+        DescriptorPool pool = new DescriptorPool();
+        int string = pool.type("Ljava/lang/String;");
+        int method = pool.method("(Ljava/lang/String;I)V");
+
+        assertEquals(0, string);
+        assertEquals(0, method);
+        assertEquals(string, pool.type(ReferenceDescriptor.of("java/lang/String")));
+        assertEquals(method, pool.method(MethodDescriptor.parse("(Ljava/lang/String;I)V")));
+        assertEquals(1, pool.method("()V"));
+        assertEquals(3, pool.typeCount());
+
+        assertEquals(2, pool.parameterCount(method));
+        assertEquals(string, pool.parameter(method, 0));
+        assertArrayEquals(new int[] {string, pool.type("I")}, pool.parameters(method));
+        assertEquals(pool.lookupType("V"), pool.returnType(method));
+    }
+
+    @Test
+    void testResolve() {
+        DescriptorPool pool = new DescriptorPool();
+        for (int i = 0; i < 500; i++) {
+            pool.method("(Lpkg/Class" + i + ";[J)Lpkg/Class" + (i + 1) + ";");
+        }
+        assertEquals(500, pool.methodCount());
+        assertEquals(502, pool.typeCount());
+
+        int method = pool.lookupMethod("(Lpkg/Class42;[J)Lpkg/Class43;");
+        assertEquals(42, method);
+        assertEquals(MethodDescriptor.parse("(Lpkg/Class42;[J)Lpkg/Class43;"), pool.methodDescriptor(method));
+        assertEquals("(Lpkg/Class42;[J)Lpkg/Class43;", pool.methodString(method));
+        assertEquals(ArrayDescriptor.of(PrimitiveDescriptor.LONG), pool.typeDescriptor(pool.lookupType("[J")));
+    }
+
+    @Test
+    void testLookupMisses() {
+        DescriptorPool pool = new DescriptorPool();
+        pool.method("(I)V");
+        assertEquals(-1, pool.lookupMethod("(J)V"));
+        assertEquals(-1, pool.lookupMethod("(I)I"));
+        assertEquals(-1, pool.lookupMethod("(I)VV"));
+        assertEquals(-1, pool.lookupMethod("(I"));
+        assertEquals(-1, pool.lookupMethod("(Lpkg/Class1"));
+        assertEquals(-1, pool.lookupMethod("([[)V"));
+        assertEquals(-1, pool.lookupMethod("(I)["));
+        assertEquals(-1, pool.lookupMethod("(I)"));
+        assertEquals(-1, pool.lookupType("Lfoo;"));
+        assertEquals(2, pool.typeCount());
+
+        assertThrows(DescriptorFormatException.class, () -> pool.method("(I)VV"));
+        assertThrows(DescriptorFormatException.class, () -> pool.type("Lfoo"));
+    }
+}
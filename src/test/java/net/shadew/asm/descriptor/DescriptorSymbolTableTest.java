@@ -0,0 +1,137 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorSymbolTableTest {
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        DescriptorPool pool = new DescriptorPool();
+        for (int i = 0; i < 100; i++) {
+            pool.method("(Lpkg/Class" + i + ";[[I)Lpkg/Class" + (i + 1) + ";");
+        }
+        pool.method("()V");
+
+        Path file = dir.resolve("symbols.bin");
+        DescriptorSymbolTable.write(pool, file);
+        DescriptorSymbolTable table = DescriptorSymbolTable.open(file);
+
+        assertEquals(pool.typeCount(), table.typeCount());
+        assertEquals(pool.methodCount(), table.methodCount());
+        for (int i = 0; i < pool.methodCount(); i++) {
+            String desc = pool.methodString(i);
+            assertEquals(desc, table.methodString(i));
+            assertEquals(i, table.lookupMethod(desc));
+            assertEquals(pool.methodDescriptor(i), table.methodDescriptor(i));
+        }
+        for (int i = 0; i < pool.typeCount(); i++) {
+            assertEquals(i, table.lookupType(pool.typeString(i)));
+        }
+        assertEquals(-1, table.lookupType("Lmissing;"));
+        assertEquals(-1, table.lookupMethod("(Lpkg/Class0;)V"));
+        assertEquals(-1, table.lookupMethod("(Lpkg/Class0"));
+        assertEquals(-1, table.lookupMethod("([[)V"));
+        assertEquals(-1, table.lookupMethod("()["));
+        assertEquals(-1, table.lookupMethod("(I)"));
+        assertEquals(ArrayDescriptor.of(PrimitiveDescriptor.INT, 2), table.typeDescriptor(table.lookupType("[[I")));
+    }
+
+    @Test
+    void testVersionCheck(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("symbols.bin");
+        DescriptorSymbolTable.write(new DescriptorPool(), file);
+
+        byte[] data = Files.readAllBytes(file);
+        data[7] = 99;
+        Files.write(file, data);
+        assertThrows(IOException.class, () -> DescriptorSymbolTable.open(file));
+    }
+
+    @Test
+    void testUnicodeNames(@TempDir Path dir) throws IOException {
+        DescriptorPool pool = new DescriptorPool();
+        // Names the JVM accepts, but that don't fit in Latin-1 or contain a NUL character
+        MethodDescriptor method = MethodDescriptor.of(
+            ReferenceDescriptor.of("pkg/\u0000"),
+            ReferenceDescriptor.of("pkg/\u00e9t\u00e9"),
+            ReferenceDescriptor.of("pkg/\u0416\u4e2d")
+        );
+        String desc = method.toString();
+        pool.method(method);
+
+        Path file = dir.resolve("symbols.bin");
+        DescriptorSymbolTable.write(pool, file);
+        DescriptorSymbolTable table = DescriptorSymbolTable.open(file);
+
+        assertEquals(desc, table.methodString(0));
+        assertEquals(0, table.lookupMethod(desc));
+        assertEquals(ReferenceDescriptor.of("pkg/\u0416\u4e2d"), table.typeDescriptor(table.lookupType("Lpkg/\u0416\u4e2d;")));
+        assertEquals(-1, table.lookupType("Lpkg/\u0416\u4e2e;"));
+    }
+
+    @Test
+    void testCorruptHeader(@TempDir Path dir) throws IOException {
+        DescriptorPool pool = new DescriptorPool();
+        pool.method("(Lpkg/A;I)Lpkg/B;");
+        Path file = dir.resolve("symbols.bin");
+        DescriptorSymbolTable.write(pool, file);
+        byte[] data = Files.readAllBytes(file);
+
+        // typeCount, methodCount, arenaLength, typeTableLength, methodTableLength, stringLength
+        assertCorrupt(dir, data, 8, -1);
+        assertCorrupt(dir, data, 8, Integer.MAX_VALUE);
+        assertCorrupt(dir, data, 12, -4);
+        assertCorrupt(dir, data, 16, Integer.MIN_VALUE);
+        assertCorrupt(dir, data, 20, 6);
+        assertCorrupt(dir, data, 24, 0);
+        assertCorrupt(dir, data, 28, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testCorruptEntries(@TempDir Path dir) throws IOException {
+        DescriptorPool pool = new DescriptorPool();
+        pool.method("(Lpkg/A;I)Lpkg/B;");
+        Path file = dir.resolve("symbols.bin");
+        DescriptorSymbolTable.write(pool, file);
+        byte[] data = Files.readAllBytes(file);
+        DescriptorSymbolTable.open(file).verify();
+
+        // Entries are only checked when used, or by verify
+        DescriptorSymbolTable table = corrupt(dir, "offset.bin", data, 32, 1000);
+        assertThrows(IOException.class, table::verify);
+        assertThrows(UncheckedIOException.class, () -> table.typeString(0));
+
+        int methods = 32 + (ByteBuffer.wrap(data).getInt(8) + 1) * 4 + (ByteBuffer.wrap(data).getInt(28) + 3 & ~3);
+        DescriptorSymbolTable badReturn = corrupt(dir, "return.bin", data, methods, 1000);
+        assertThrows(IOException.class, badReturn::verify);
+        assertThrows(UncheckedIOException.class, () -> badReturn.returnType(0));
+
+        DescriptorSymbolTable badArena = corrupt(dir, "arena.bin", data, methods + 4, 1);
+        assertThrows(IOException.class, badArena::verify);
+        assertThrows(UncheckedIOException.class, () -> badArena.parameters(0));
+    }
+
+    private static void assertCorrupt(Path dir, byte[] data, int offset, int value) throws IOException {
+        byte[] copy = data.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        Path file = dir.resolve("corrupt.bin");
+        Files.write(file, copy);
+        assertThrows(IOException.class, () -> DescriptorSymbolTable.open(file));
+    }
+
+    private static DescriptorSymbolTable corrupt(Path dir, String name, byte[] data, int offset, int value) throws IOException {
+        byte[] copy = data.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        Path file = dir.resolve(name);
+        Files.write(file, copy);
+        return DescriptorSymbolTable.open(file);
+    }
+}
@@ -0,0 +1,78 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorVisitorTest {
+    private static final String METHOD = "(I[[Ljava/lang/String;Ljava/util/List;)[J";
+    private static final String EVENTS = "(#0 I #1 [ [ Ljava/lang/String; #2 Ljava/util/List; ) [ J .";
+
+    @Test
+    void testStreaming() {
+        EventRecorder events = new EventRecorder();
+        assertEquals(METHOD.length(), new DescriptorReader().accept(METHOD, 0, METHOD.length(), events));
+        assertEquals(EVENTS, events.toString());
+    }
+
+    @Test
+    void testStreamingBytes() {
+        byte[] bytes = METHOD.getBytes(StandardCharsets.UTF_8);
+        EventRecorder events = new EventRecorder();
+        new DescriptorReader().accept(bytes, 0, bytes.length, events);
+        assertEquals(EVENTS, events.toString());
+    }
+
+    @Test
+    void testTreeMatchesStreaming() {
+        EventRecorder events = new EventRecorder();
+        MethodDescriptor.parse(METHOD).accept(events);
+        assertEquals(EVENTS, events.toString());
+    }
+
+    private static class EventRecorder extends DescriptorVisitor {
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        public void visitInternalName(String internalName) {
+            builder.append(" L").append(internalName).append(';');
+        }
+
+        @Override
+        public void visitArrayDimension() {
+            builder.append(" [");
+        }
+
+        @Override
+        public void visitPrimitive(PrimitiveDescriptor desc) {
+            builder.append(' ').append(desc.prefix());
+        }
+
+        @Override
+        public void visitMethodStart() {
+            builder.append('(');
+        }
+
+        @Override
+        public void visitParameter(int index) {
+            builder.append(builder.length() == 1 ? "#" : " #").append(index);
+        }
+
+        @Override
+        public void visitReturnType() {
+            builder.append(" )");
+        }
+
+        @Override
+        public void visitMethodEnd() {
+            builder.append(" .");
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
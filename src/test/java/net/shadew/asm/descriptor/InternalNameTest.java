@@ -0,0 +1,88 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternalNameTest {
+    @Test
+    void testSegments() {
+        InternalName name = InternalName.of("test/class/with/Many$Very$Inner");
+        assertEquals("test/class/with", name.packageName().toString());
+        assertEquals("Many$Very$Inner", name.className().toString());
+        assertEquals("Inner", name.simpleName().toString());
+        assertEquals("test/class/with/Many$Very", name.outerClass().toString());
+        assertEquals("test/class/with/Many", name.rootClass().toString());
+        assertTrue(name.isInnerClass());
+        assertFalse(name.inMainPackage());
+
+        InternalName plain = InternalName.of("Package");
+        assertEquals("", plain.packageName().toString());
+        assertEquals("Package", plain.className().toString());
+        assertEquals("Package", plain.simpleName().toString());
+        assertEquals("Package", plain.rootClass().toString());
+        assertTrue(plain.inMainPackage());
+        assertFalse(plain.isInnerClass());
+        assertThrows(IllegalArgumentException.class, plain::outerClass);
+        assertFalse(InternalName.of("some/te$ting/Magic").isInnerClass());
+    }
+
+    @Test
+    void testViews() {
+        InternalName name = InternalName.of("java/lang/Thread$State");
+        CharSequence pkg = name.packageName();
+        assertEquals(9, pkg.length());
+        assertEquals('l', pkg.charAt(5));
+        assertEquals("lang", pkg.subSequence(5, 9).toString());
+        assertEquals(InternalName.of("java/lang/String").packageName(), pkg);
+        assertEquals("java/lang".hashCode(), pkg.hashCode());
+        assertThrows(IndexOutOfBoundsException.class, () -> pkg.charAt(9));
+    }
+
+    @Test
+    void testMatchesUtil() {
+        String[] names = {"java/lang/String", "some/te$ting/Magic", "some/more/Testing$Magic", "Main", "Main$Inner"};
+        String[] prefixes = {"", "java", "java/lang", "java/la", "java/lang/String", "some/te", "some/more/Testing", "Main"};
+        for (String n : names) {
+            InternalName name = InternalName.of(n);
+            assertEquals(InternalNameUtil.toCode(n), name.toCode());
+            for (String p : prefixes) {
+                assertEquals(InternalNameUtil.inPackage(n, p), name.inPackage(p), n + " in package " + p);
+                assertEquals(InternalNameUtil.inClass(n, p), name.inClass(p), n + " in class " + p);
+                assertEquals(InternalNameUtil.renamePackage(n, p, "x/y"), name.renamePackage(p, "x/y").toString());
+                assertEquals(InternalNameUtil.renameClass(n, p, "x/Y"), name.renameClass(p, "x/Y").toString());
+                assertEquals(name.inPackage(p), name.inPackage(new StringBuilder(p)));
+            }
+        }
+        assertEquals("Main", InternalNameUtil.outerClass("Main$Inner"));
+        assertEquals("Main", InternalNameUtil.rootClass("Main$Inner$Class"));
+    }
+
+    @Test
+    void testOuterAndRootMatchUtil() {
+        String[] names = {
+            "Main", "Main$Inner", "Main$Inner$1", "$Foo", "test/$Foo",
+            "test/Foo$", "test/Foo$$Bar", "te$t/Foo", "te$t/Foo$Bar"
+        };
+        for (String n : names) {
+            InternalName name = InternalName.of(n);
+            assertEquals(InternalNameUtil.rootClass(n), name.rootClass().toString(), n);
+            assertEquals(InternalNameUtil.isInnerClass(n), name.isInnerClass(), n);
+            if (InternalNameUtil.isInnerClass(n)) {
+                assertEquals(InternalNameUtil.outerClass(n), name.outerClass().toString(), n);
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> InternalNameUtil.outerClass(n));
+                assertThrows(IllegalArgumentException.class, name::outerClass);
+            }
+        }
+    }
+
+    @Test
+    void testDescriptor() {
+        ReferenceDescriptor desc = ReferenceDescriptor.parse("Ljava/util/Map$Entry;");
+        assertSame(desc.name(), desc.name());
+        assertEquals("Entry", desc.name().simpleName().toString());
+        assertEquals("java.util.Map.Entry", desc.toCode());
+        assertEquals(desc, ReferenceDescriptor.of(InternalName.of("java/util/Map$Entry")));
+    }
+}
@@ -38,6 +38,19 @@ public class InternalNameUtilTest {
         assertThrows(IllegalArgumentException.class, () -> InternalNameUtil.outerClass("test/class/in/Package"));
         assertEquals("test/class/with/Inner", InternalNameUtil.outerClass("test/class/with/Inner$Class"));
         assertEquals("test/class/with/Anonymous$Class", InternalNameUtil.outerClass("test/class/with/Anonymous$Class$1"));
+
+        // Main package, no leading '/'
+        assertEquals("Main", InternalNameUtil.outerClass("Main$Inner"));
+        assertEquals("Main$Inner", InternalNameUtil.outerClass("Main$Inner$1"));
+        assertThrows(IllegalArgumentException.class, () -> InternalNameUtil.outerClass("Main"));
+
+        // Leading and trailing '$', and '$' in the package
+        assertEquals("", InternalNameUtil.outerClass("$Foo"));
+        assertEquals("test/", InternalNameUtil.outerClass("test/$Foo"));
+        assertEquals("test/Foo", InternalNameUtil.outerClass("test/Foo$"));
+        assertEquals("test/Foo$", InternalNameUtil.outerClass("test/Foo$$"));
+        assertEquals("te$t/Foo", InternalNameUtil.outerClass("te$t/Foo$Bar"));
+        assertThrows(IllegalArgumentException.class, () -> InternalNameUtil.outerClass("te$t/Foo"));
     }
 
     @Test
@@ -46,6 +59,18 @@ public class InternalNameUtilTest {
         assertEquals("test/class/with/Inner", InternalNameUtil.rootClass("test/class/with/Inner$Class"));
         assertEquals("test/class/with/Anonymous", InternalNameUtil.rootClass("test/class/with/Anonymous$Class$1"));
         assertEquals("test/class/with/Many", InternalNameUtil.rootClass("test/class/with/Many$Very$Many$Inner$Classes"));
+
+        // Main package, no leading '/'
+        assertEquals("Main", InternalNameUtil.rootClass("Main"));
+        assertEquals("Main", InternalNameUtil.rootClass("Main$Inner$Class"));
+
+        // Leading and trailing '$', and '$' in the package
+        assertEquals("", InternalNameUtil.rootClass("$Foo"));
+        assertEquals("test/", InternalNameUtil.rootClass("test/$Foo$Bar"));
+        assertEquals("test/Foo", InternalNameUtil.rootClass("test/Foo$"));
+        assertEquals("test/Foo", InternalNameUtil.rootClass("test/Foo$$Bar"));
+        assertEquals("te$t/Foo", InternalNameUtil.rootClass("te$t/Foo"));
+        assertEquals("te$t/Foo", InternalNameUtil.rootClass("te$t/Foo$Bar"));
     }
 
     @Test
@@ -0,0 +1,107 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JarRemapperTest {
+    private static final Mapper MAPPER = name -> name.startsWith("a/") ? "x/" + name.substring(2) : name;
+
+    @Test
+    void testRemapJar() throws IOException {
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(jar)) {
+            put(zip, "a/B.class", generate("a/B", "La/C;"));
+            put(zip, "readme.txt", "hello".getBytes());
+            put(zip, "a/C.class", generate("a/C", "[Ljava/lang/String;"));
+            put(zip, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JarRemapper(MAPPER).remap(new ByteArrayInputStream(jar.toByteArray()), out);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                if (entry.getName().equals("x/B.class")) {
+                    ByteArrayOutputStream data = new ByteArrayOutputStream();
+                    byte[] buf = new byte[1024];
+                    int read;
+                    while ((read = zip.read(buf)) != -1) data.write(buf, 0, read);
+
+                    ClassReader reader = new ClassReader(data.toByteArray());
+                    assertEquals("x/B", reader.getClassName());
+                    reader.accept(new ClassVisitor(Opcodes.ASM8) {
+                        @Override
+                        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                            assertEquals("Lx/C;", descriptor);
+                            return null;
+                        }
+                    }, 0);
+                }
+            }
+        }
+        assertEquals(Arrays.asList("META-INF/MANIFEST.MF", "readme.txt", "x/B.class", "x/C.class"), names);
+    }
+
+    @Test
+    void testRemapInPlace(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("in.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            put(zip, "a/B.class", generate("a/B", "La/C;"));
+            put(zip, "readme.txt", "hello".getBytes());
+        }
+
+        new JarRemapper(MAPPER).remap(file, file);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        assertEquals(Arrays.asList("readme.txt", "x/B.class"), names);
+        // No temporary file is left behind
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            stream.forEach(files::add);
+        }
+        assertEquals(Arrays.asList(file), files);
+    }
+
+    private static void put(ZipOutputStream zip, String name, byte[] data) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(data);
+        zip.closeEntry();
+    }
+
+    private static byte[] generate(String name, String fieldDesc) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        writer.visitField(Opcodes.ACC_PUBLIC, "field", fieldDesc, null, null).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,136 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappingReaderTest {
+    // Shared with MemberMapperTest
+    static TableMapper load(MappingFormat format, String text) throws IOException {
+        TableMapper.Builder builder = TableMapper.builder();
+        MappingReader.read(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), format, builder);
+        return builder.build();
+    }
+
+    private static void assertMapped(TableMapper mapper) {
+        assertEquals(2, mapper.size());
+        assertEquals("net/minecraft/Foo", mapper.remap("a"));
+        assertEquals("net/minecraft/Foo$Bar", mapper.remap("a$b"));
+        assertEquals("c", mapper.remap("c"));
+    }
+
+    @Test
+    void testSrg() throws IOException {
+        assertMapped(load(MappingFormat.SRG,
+            "PK: . net/minecraft\n" +
+            "CL: a net/minecraft/Foo\r\n" +
+            "CL: a$b net/minecraft/Foo$Bar\n" +
+            "FD: a/a net/minecraft/Foo/field\n" +
+            "MD: a/a ()V net/minecraft/Foo/method ()V\n"
+        ));
+    }
+
+    @Test
+    void testTsrg() throws IOException {
+        assertMapped(load(MappingFormat.TSRG,
+            "a net/minecraft/Foo\n" +
+            "\ta field\n" +
+            "\ta ()V method\n" +
+            "a$b net/minecraft/Foo$Bar\n"
+        ));
+        assertMapped(load(MappingFormat.TSRG,
+            "tsrg2 obf srg\n" +
+            "a net/minecraft/Foo\n" +
+            "\ta ()V method\n" +
+            "\t\t0 o p_0\n" +
+            "a$b net/minecraft/Foo$Bar\n"
+        ));
+    }
+
+    @Test
+    void testTiny() throws IOException {
+        assertMapped(load(MappingFormat.TINY,
+            "v1\tofficial\tnamed\n" +
+            "CLASS\ta\tnet/minecraft/Foo\n" +
+            "FIELD\ta\tI\ta\tfield\n" +
+            "CLASS\ta$b\tnet/minecraft/Foo$Bar\n"
+        ));
+        assertMapped(load(MappingFormat.TINY,
+            "tiny\t2\t0\tofficial\tnamed\n" +
+            "\tescaped-names\n" +
+            "c\ta\tnet/minecraft/Foo\n" +
+            "\tm\t()V\ta\tmethod\n" +
+            "\t\tp\t1\t\tparam\n" +
+            "c\ta$b\tnet/minecraft/Foo$Bar\n" +
+            "c\tc\t\n"
+        ));
+        assertThrows(IOException.class, () -> load(MappingFormat.TINY, "c\ta\tb\n"));
+    }
+
+    @Test
+    void testProguard() throws IOException {
+        TableMapper mapper = load(MappingFormat.PROGUARD,
+            "# compiler: R8\n" +
+            "net.minecraft.Foo -> a:\n" +
+            "    int field -> a\n" +
+            "    1:2:void method() -> a\n" +
+            "net.minecraft.Foo$Bar -> a$b:\n"
+        );
+        assertEquals(2, mapper.size());
+        assertEquals("a", mapper.remap("net/minecraft/Foo"));
+        assertEquals("a$b", mapper.remap("net/minecraft/Foo$Bar"));
+        assertThrows(IOException.class, () -> load(MappingFormat.PROGUARD, "net.minecraft.Foo a\n"));
+    }
+
+    @Test
+    void testUnicode() throws IOException {
+        TableMapper mapper = load(MappingFormat.SRG, "CL: a net/\u00fcnicode/\u00d1ame\n");
+        assertEquals("net/\u00fcnicode/\u00d1ame", mapper.remap("a"));
+    }
+
+    @Test
+    void testFile(@TempDir Path dir) throws IOException {
+        Path small = dir.resolve("small.srg");
+        Files.write(small, "CL: a b\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("b", MappingReader.load(small, MappingFormat.SRG).remap("a"));
+
+        // Large enough to be memory-mapped
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 2 << 20; i++) {
+            text.append("CL: obf").append(i).append(" net/example/Class").append(i).append('\n');
+        }
+        Path large = dir.resolve("large.srg");
+        Files.write(large, text.toString().getBytes(StandardCharsets.UTF_8));
+        TableMapper mapper = MappingReader.load(large, MappingFormat.SRG);
+        assertEquals("net/example/Class12345", mapper.remap("obf12345"));
+        assertTrue(mapper.size() > 50000);
+    }
+
+    @Test
+    void testVisitor() throws IOException {
+        List<String> out = new ArrayList<>();
+        TableMapper mapper = load(MappingFormat.SRG, "CL: a b\nCL: c d\nCL: a e\n");
+        assertEquals(2, mapper.size());
+        assertEquals("e", mapper.get("a"));
+        assertNull(mapper.get("b"));
+        assertTrue(mapper.contains(new StringBuilder("c")));
+        mapper.accept(new MappingVisitor() {
+            @Override
+            public void visitClass(CharSequence from, CharSequence to) {
+                out.add(from + "=" + to);
+            }
+        });
+        assertEquals(2, out.size());
+        assertTrue(out.contains("a=e"));
+        assertTrue(out.contains("c=d"));
+    }
+}
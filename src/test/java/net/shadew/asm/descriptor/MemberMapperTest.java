@@ -0,0 +1,194 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.ClassRemapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberMapperTest {
+    private static void assertMembers(TableMapper mapper, boolean fieldDescriptors) {
+        assertEquals(3, mapper.memberCount());
+        assertEquals("field", mapper.mapField("a", "a", "I"));
+        assertEquals(fieldDescriptors ? "b" : "other", mapper.mapField("a", "b", "J"));
+        assertEquals("method", mapper.mapMethod("a", "a", "(La;)V"));
+        assertEquals("a", mapper.mapMethod("a", "a", "()V"));
+        assertEquals("a", mapper.mapMethod("b", "a", "(La;)V"));
+        assertEquals("method", mapper.mapMethod("a", "a", MethodDescriptor.parse("(La;)V")));
+        assertEquals("field", mapper.mapField("a", "a", PrimitiveDescriptor.INT));
+    }
+
+    @Test
+    void testSrg() throws IOException {
+        assertMembers(MappingReaderTest.load(MappingFormat.SRG,
+            "CL: a net/Foo\n" +
+            "FD: a/a net/Foo/field\n" +
+            "FD: a/b net/Foo/other\n" +
+            "MD: a/a (La;)V net/Foo/method (Lnet/Foo;)V\n"
+        ), false);
+    }
+
+    @Test
+    void testTsrg() throws IOException {
+        assertMembers(MappingReaderTest.load(MappingFormat.TSRG,
+            "a net/Foo\n" +
+            "\ta field\n" +
+            "\tb other\n" +
+            "\ta (La;)V method\n"
+        ), false);
+        assertMembers(MappingReaderTest.load(MappingFormat.TSRG,
+            "tsrg2 obf named\n" +
+            "a net/Foo\n" +
+            "\ta I field\n" +
+            "\tb I other\n" +
+            "\ta (La;)V method\n" +
+            "\t\tstatic\n" +
+            "\t\t0 o p\n"
+        ), true);
+        assertMembers(MappingReaderTest.load(MappingFormat.TSRG,
+            "tsrg2 obf named id\n" +
+            "a net/Foo 1\n" +
+            "\ta field 100\n" +
+            "\tb other 101\n" +
+            "\ta (La;)V method 102\n"
+        ), false);
+        assertMembers(MappingReaderTest.load(MappingFormat.TSRG,
+            "tsrg2 obf named id\n" +
+            "a net/Foo 1\n" +
+            "\ta I field 100\n" +
+            "\tb I other 101\n" +
+            "\ta (La;)V method 102\n"
+        ), true);
+    }
+
+    @Test
+    void testTiny() throws IOException {
+        assertMembers(MappingReaderTest.load(MappingFormat.TINY,
+            "v1\tofficial\tnamed\n" +
+            "CLASS\ta\tnet/Foo\n" +
+            "FIELD\ta\tI\ta\tfield\n" +
+            "FIELD\ta\tI\tb\tother\n" +
+            "METHOD\ta\t(La;)V\ta\tmethod\n"
+        ), true);
+        assertMembers(MappingReaderTest.load(MappingFormat.TINY,
+            "tiny\t2\t0\tofficial\tnamed\n" +
+            "c\ta\tnet/Foo\n" +
+            "\tc\tA comment\n" +
+            "\tf\tI\ta\tfield\n" +
+            "\tf\tI\tb\tother\n" +
+            "\tm\t(La;)V\ta\tmethod\n" +
+            "\t\tp\t1\t\tparam\n" +
+            "\tm\t()V\tc\t\n"
+        ), true);
+    }
+
+    @Test
+    void testProguard() throws IOException {
+        TableMapper mapper = MappingReaderTest.load(MappingFormat.PROGUARD,
+            "net.Foo -> a:\n" +
+            "    int field -> a\n" +
+            "      # {\"id\":\"com.android.tools.r8.synthesized\"}\n" +
+            "    java.lang.String[][] names -> b\n" +
+            "\t# tab indented comment\n" +
+            "    1:3:void method(net.Foo,long[],java.lang.String):10:12 -> a\n" +
+            "    4:4:void other.Inlined.method():5:5 -> a\n"
+        );
+        assertEquals(3, mapper.memberCount());
+        assertEquals("a", mapper.mapField("net/Foo", "field", "I"));
+        assertEquals("b", mapper.mapField("net/Foo", "names", "[[Ljava/lang/String;"));
+        assertEquals("a", mapper.mapMethod("net/Foo", "method", "(Lnet/Foo;[JLjava/lang/String;)V"));
+    }
+
+    @Test
+    void testHierarchy() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitMethod("base/Base", "run", "()V", "execute");
+        builder.visitMethod("base/Iface", "call", "(I)I", "invoke");
+        builder.visitField("base/Base", "count", "I", "size");
+        TableMapper table = builder.build();
+
+        Map<String, List<String>> supers = new HashMap<>();
+        supers.put("app/Impl", Arrays.asList("app/Middle", "base/Iface"));
+        supers.put("app/Middle", Collections.singletonList("base/Base"));
+        supers.put("base/Base", Collections.singletonList("java/lang/Object"));
+        List<String> queried = new ArrayList<>();
+        MemberMapper members = table.withHierarchy(name -> {
+            queried.add(name);
+            return supers.getOrDefault(name, Collections.emptyList());
+        });
+
+        assertEquals("run", table.mapMethod("app/Impl", "run", "()V"));
+        assertEquals("execute", members.mapMethod("app/Impl", "run", "()V"));
+        assertEquals("invoke", members.mapMethod("app/Impl", "call", "(I)I"));
+        assertEquals("size", members.mapField("app/Impl", "count", "I"));
+        assertEquals("count", members.mapField("app/Impl", "count", "J"));
+        assertEquals("other", members.mapMethod("app/Impl", "other", "()V"));
+
+        // The hierarchy is walked once per owner
+        assertEquals(5, queried.size());
+    }
+
+    @Test
+    void testAsmRemapper() {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "a", null, "java/lang/Object", null);
+        writer.visitField(Opcodes.ACC_PUBLIC, "a", "I", null, null).visitEnd();
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC, "a", "(La;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.GETFIELD, "a", "a", "I");
+        mv.visitInsn(Opcodes.POP);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(1, 2);
+        mv.visitEnd();
+        writer.visitEnd();
+
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("a", "net/Foo");
+        builder.visitField("a", "a", null, "field");
+        builder.visitMethod("a", "a", "(La;)V", "method");
+        TableMapper mapper = builder.build();
+
+        ClassWriter out = new ClassWriter(0);
+        new ClassReader(writer.toByteArray()).accept(new ClassRemapper(out, new AsmRemapper(mapper, mapper)), 0);
+
+        List<String> members = new ArrayList<>();
+        new ClassReader(out.toByteArray()).accept(new ClassVisitor(Opcodes.ASM8) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                members.add(name);
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                members.add(name + " " + descriptor);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                members.add(name + descriptor);
+                return new MethodVisitor(Opcodes.ASM8) {
+                    @Override
+                    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                        members.add(owner + "." + name);
+                    }
+                };
+            }
+        }, 0);
+        assertEquals(Arrays.asList("net/Foo", "field I", "method(Lnet/Foo;)V", "net/Foo.field"), members);
+    }
+}
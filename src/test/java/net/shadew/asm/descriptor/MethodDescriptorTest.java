@@ -0,0 +1,85 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodDescriptorTest {
+    @Test
+    void testSizes() {
+        MethodDescriptor method = MethodDescriptor.parse("(IJ[DLjava/lang/String;D)J");
+        assertEquals(5, method.parameterCount());
+        assertEquals(7, method.parametersSize());
+        assertEquals(2, method.returnSize());
+        assertEquals(9, method.totalSize());
+
+        MethodDescriptor empty = MethodDescriptor.parse("()V");
+        assertEquals(0, empty.parameterCount());
+        assertEquals(0, empty.totalSize());
+    }
+
+    @Test
+    void testCompactMatchesTree() {
+        String desc = "(I[[Ljava/lang/String;Lfoo/Bar;)[Lfoo/Baz;";
+        MethodDescriptor compact = MethodDescriptor.parse(desc);
+        MethodDescriptor tree = MethodDescriptor.of(
+            ArrayDescriptor.of(ReferenceDescriptor.of("foo/Baz")),
+            PrimitiveDescriptor.INT,
+            ArrayDescriptor.of(ReferenceDescriptor.of("java/lang/String"), 2),
+            ReferenceDescriptor.of("foo/Bar")
+        );
+
+        assertSame(desc, compact.toString());
+        assertEquals(tree, compact);
+        assertEquals(compact, tree);
+        assertEquals(tree.hashCode(), compact.hashCode());
+        assertEquals(tree.parametersSize(), compact.parametersSize());
+        assertEquals(ReferenceDescriptor.of("foo/Bar"), compact.parameter(2));
+        assertEquals(2, compact.parameter(1).asArray().dimensions());
+        assertEquals(tree.returnType(), compact.returnType());
+        assertEquals(tree.toCode("name"), compact.toCode("name"));
+    }
+
+    @Test
+    void testCompactRemap() {
+        MethodDescriptor method = MethodDescriptor.parse("(La/B;I)V");
+        assertSame(method, method.remap(name -> name));
+        assertEquals("(Lx/Y;I)V", method.remap(name -> "x/Y").toString());
+
+        // Mapped names are not validated, just like when remapping descriptors built from their parts
+        MethodDescriptor lenient = method.remap(name -> "x-y/\u00c4");
+        assertEquals("(Lx-y/\u00c4;I)V", lenient.toString());
+        assertSame(method.parameter(1), lenient.parameter(1));
+    }
+
+    @Test
+    void testSlots() {
+        MethodDescriptor compact = MethodDescriptor.parse("(IJLjava/lang/String;D[J)V");
+        MethodDescriptor tree = MethodDescriptor.of(
+            PrimitiveDescriptor.VOID,
+            PrimitiveDescriptor.INT, PrimitiveDescriptor.LONG, ReferenceDescriptor.of("java/lang/String"),
+            PrimitiveDescriptor.DOUBLE, ArrayDescriptor.of(PrimitiveDescriptor.LONG)
+        );
+
+        for (MethodDescriptor method : new MethodDescriptor[] {compact, tree}) {
+            assertEquals(0, method.argumentSlot(0));
+            assertEquals(1, method.argumentSlot(1));
+            assertEquals(3, method.argumentSlot(2));
+            assertEquals(6, method.argumentSlot(4));
+            assertEquals(7, method.argumentSlot(4, true));
+
+            assertEquals(1, method.slotArgument(1));
+            assertEquals(-1, method.slotArgument(2));
+            assertEquals(3, method.slotArgument(4));
+            assertEquals(-1, method.slotArgument(0, true));
+            assertEquals(0, method.slotArgument(1, true));
+
+            assertEquals(Opcodes.ILOAD, method.loadOpcode(0));
+            assertEquals(Opcodes.LLOAD, method.loadOpcode(1));
+            assertEquals(Opcodes.ALOAD, method.loadOpcode(2));
+            assertEquals(Opcodes.DSTORE, method.storeOpcode(3));
+            assertEquals(Opcodes.ASTORE, method.storeOpcode(4));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodTypeTest {
+    @Test
+    void testToClass() throws ClassNotFoundException {
+        ClassLoader loader = getClass().getClassLoader();
+        assertSame(int.class, PrimitiveDescriptor.INT.toClass(loader));
+        assertSame(void.class, PrimitiveDescriptor.VOID.toClass(null));
+        assertSame(String.class, TypeDescriptor.parse("Ljava/lang/String;").toClass(null));
+        assertSame(String[][].class, TypeDescriptor.parse("[[Ljava/lang/String;").toClass(loader));
+        assertSame(int[].class, TypeDescriptor.parse("[I").toClass(loader));
+        assertSame(MethodTypeTest.class, TypeDescriptor.parse("Lnet/shadew/asm/descriptor/MethodTypeTest;").toClass(loader));
+        assertThrows(ClassNotFoundException.class, () -> TypeDescriptor.parse("Lfoo/DoesNotExist;").toClass(loader));
+    }
+
+    @Test
+    void testLoaderIsolation() {
+        ClassLoader empty = new URLClassLoader(new URL[0], null);
+        TypeDescriptor desc = TypeDescriptor.parse("Lnet/shadew/asm/descriptor/MethodTypeTest;");
+        assertThrows(ClassNotFoundException.class, () -> desc.toClass(empty));
+    }
+
+    @Test
+    void testMethodType() throws ClassNotFoundException {
+        ClassLoader loader = getClass().getClassLoader();
+        MethodDescriptor desc = MethodDescriptor.parse("(ILjava/lang/Object;[J)Ljava/util/List;");
+        MethodType type = desc.toMethodType(loader);
+        assertEquals(MethodType.methodType(List.class, int.class, Object.class, long[].class), type);
+        assertEquals(type.toMethodDescriptorString(), desc.toString());
+        assertEquals(desc, MethodDescriptor.reflect(type));
+        assertEquals("()V", MethodDescriptor.reflect(MethodType.methodType(void.class)).toString());
+    }
+}
@@ -0,0 +1,69 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NestedClassMapperTest {
+    @Test
+    void testDerivesNestedClasses() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("a/B", "x/Outer");
+        builder.visitClass("a/B$C", "x/Outer$Named");
+        NestedClassMapper mapper = new NestedClassMapper(builder.build());
+
+        assertEquals("x/Outer", mapper.remap("a/B"));
+        assertEquals("x/Outer$1", mapper.remap("a/B$1"));
+        assertEquals("x/Outer$D", mapper.remap("a/B$D"));
+        assertEquals("x/Outer$Named", mapper.remap("a/B$C"));
+        assertEquals("x/Outer$Named$1", mapper.remap("a/B$C$1"));
+        assertEquals("x/Outer$D$2$E", mapper.remap("a/B$D$2$E"));
+        assertEquals("a/Other$1", mapper.remap("a/Other$1"));
+        assertEquals("$Lambda", mapper.remap("$Lambda"));
+        assertEquals("a/$B", mapper.remap("a/$B"));
+        assertEquals("a/B$", mapper.remap("a/B$"));
+        assertTrue(InternalNameUtil.isAnonymous(mapper.remap("a/B$C$1")));
+    }
+
+    @Test
+    void testExplicitIdentityWins() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("a/B", "x/Outer");
+        builder.visitClass("a/B$Keep", "a/B$Keep");
+        NestedClassMapper mapper = new NestedClassMapper(builder.build());
+
+        assertEquals("a/B$Keep", mapper.remap("a/B$Keep"));
+        assertEquals("a/B$Keep$1", mapper.remap("a/B$Keep$1"));
+        assertEquals("x/Outer$Other", mapper.remap("a/B$Other"));
+
+        // A plain mapper can't express an identity entry, so the nested class follows its outer class
+        NestedClassMapper plain = new NestedClassMapper(name -> name.equals("a/B") ? "x/Outer" : name);
+        assertEquals("x/Outer$Keep", plain.remap("a/B$Keep"));
+    }
+
+    @Test
+    void testCaches() {
+        AtomicInteger calls = new AtomicInteger();
+        NestedClassMapper mapper = new NestedClassMapper(name -> {
+            calls.incrementAndGet();
+            return name.equals("a/B") ? "x/Y" : name;
+        });
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("x/Y$" + i, mapper.remap("a/B$" + i));
+        }
+        // Each nested class once, and the outer class only once
+        assertEquals(101, calls.get());
+        assertEquals("x/Y$5", mapper.remap("a/B$5"));
+        assertEquals(101, calls.get());
+        assertEquals(101, mapper.size());
+
+        NestedClassMapper bounded = new NestedClassMapper(name -> name, 16);
+        for (int i = 0; i < 100; i++) {
+            bounded.remap("a/B$" + i);
+        }
+        assertTrue(bounded.size() <= 16);
+    }
+}
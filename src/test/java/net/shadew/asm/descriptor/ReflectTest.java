@@ -0,0 +1,45 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReflectTest {
+    @Test
+    void testTypes() {
+        assertSame(PrimitiveDescriptor.INT, TypeDescriptor.reflect(int.class));
+        assertEquals("Ljava/lang/String;", TypeDescriptor.reflect(String.class).toString());
+        assertSame(TypeDescriptor.reflect(String.class), TypeDescriptor.reflect(String.class));
+        assertSame(TypeDescriptor.reflect(String[][].class), TypeDescriptor.reflect(String[][].class));
+        assertEquals(2, TypeDescriptor.reflect(String[][].class).asArray().dimensions());
+    }
+
+    @Test
+    void testMembers() throws ReflectiveOperationException {
+        assertEquals("(ILjava/lang/Object;)V", MethodDescriptor.reflect(List.class.getMethod("add", int.class, Object.class)).toString());
+        assertEquals("(Ljava/lang/String;)V", MethodDescriptor.reflect(StringBuilder.class.getConstructor(String.class)).toString());
+        assertEquals("[J", TypeDescriptor.reflect(Sample.class.getDeclaredField("values")).toString());
+
+        // Each call returns a fresh Method, but the descriptor is cached per member
+        Method compute = Sample.class.getDeclaredMethod("compute", String.class);
+        assertSame(MethodDescriptor.reflect(compute), MethodDescriptor.reflect(Sample.class.getDeclaredMethod("compute", String.class)));
+        assertSame(MethodDescriptor.reflect(Sample.class.getDeclaredConstructor()), MethodDescriptor.reflect(Sample.class.getDeclaredConstructor()));
+
+        ReflectedMembers members = ReflectedMembers.of(Sample.class);
+        assertSame(members, ReflectedMembers.of(Sample.class));
+        assertEquals(1, members.fields().size());
+        assertEquals(1, members.constructors().size());
+        assertEquals("(Ljava/lang/String;)[[I", members.method(Sample.class.getDeclaredMethod("compute", String.class)).toString());
+    }
+
+    static class Sample {
+        long[] values;
+
+        int[][] compute(String in) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelocationMapperTest {
+    private static final String[] NAMES = {
+        "java/lang/String", "java/lang/Thread$State", "java/lang/invoke/MethodType", "some/te$ting/Magic",
+        "some/more/Testing", "some/more/Testing$Magic", "some/more/Testing$Magic$1", "some/more/Testing$Magic/Sub",
+        "some/more/TestingMore", "Main", "Main$Inner", "java", "java/langs/Foo"
+    };
+
+    private static final String[] PREFIXES = {
+        "", "java", "java/lang", "java/la", "java/lang/String", "java/lang/Thread", "some/te", "some/more/Testing",
+        "some/more/Testing$Magic", "Main", "java/lang/invoke"
+    };
+
+    @Test
+    void testSingleRuleMatchesUtil() {
+        for (String from : PREFIXES) {
+            RelocationMapper packages = RelocationMapper.builder().renamePackage(from, "x/y").build();
+            for (String name : NAMES) {
+                assertEquals(InternalNameUtil.renamePackage(name, from, "x/y"), packages.remap(name), name + " in package " + from);
+            }
+            if (from.isEmpty()) continue;
+
+            RelocationMapper classes = RelocationMapper.builder().renameClass(from, "x/Y").build();
+            for (String name : NAMES) {
+                assertEquals(InternalNameUtil.renameClass(name, from, "x/Y"), classes.remap(name), name + " in class " + from);
+            }
+        }
+    }
+
+    @Test
+    void testMostSpecificWins() {
+        RelocationMapper mapper = RelocationMapper.builder()
+                                                  .renamePackage("java", "j")
+                                                  .renamePackage("java/lang", "shaded/lang")
+                                                  .renamePackage("java/lang/invoke", "java/lang/invoke")
+                                                  .renameClass("java/lang/Thread", "shaded/Fiber")
+                                                  .renameClass("some/more/Testing$Magic", "Magic")
+                                                  .renamePackage("some", "other")
+                                                  .build();
+        assertEquals(6, mapper.ruleCount());
+        assertEquals("j/util/List", mapper.remap("java/util/List"));
+        assertEquals("shaded/lang/String", mapper.remap("java/lang/String"));
+        assertEquals("shaded/lang/ref/Reference", mapper.remap("java/lang/ref/Reference"));
+        assertEquals("java/lang/invoke/MethodType", mapper.remap("java/lang/invoke/MethodType"));
+        assertEquals("shaded/Fiber", mapper.remap("java/lang/Thread"));
+        assertEquals("shaded/Fiber$State", mapper.remap("java/lang/Thread$State"));
+        assertEquals("shaded/lang/ThreadLocal", mapper.remap("java/lang/ThreadLocal"));
+        assertEquals("Magic$1", mapper.remap("some/more/Testing$Magic$1"));
+        assertEquals("other/more/Testing$Other", mapper.remap("some/more/Testing$Other"));
+        assertEquals("javax/swing/JFrame", mapper.remap("javax/swing/JFrame"));
+        assertEquals("Main", mapper.remap("Main"));
+    }
+
+    @Test
+    void testManyRules() {
+        RelocationMapper.Builder builder = RelocationMapper.builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.renamePackage("com/lib" + i, "shaded/com/lib" + i);
+        }
+        RelocationMapper mapper = builder.build();
+        assertEquals(5000, mapper.ruleCount());
+        for (int i = 0; i < 5000; i += 7) {
+            assertEquals("shaded/com/lib" + i + "/api/Type$Inner", mapper.remap("com/lib" + i + "/api/Type$Inner"));
+        }
+        assertEquals("com/lib5000/Type", mapper.remap("com/lib5000/Type"));
+    }
+}
@@ -0,0 +1,44 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemapTest {
+    private static final Mapper MAPPER = name -> name.equals("a/B") ? "x/Y" : name;
+
+    @Test
+    void testUnchangedInstances() {
+        MethodDescriptor method = MethodDescriptor.parse("(Ljava/lang/String;[[I)[Ljava/lang/Object;");
+        assertSame(method, method.remap(MAPPER));
+        assertSame(method, method.remap(name -> new String(name)));
+
+        TypeDescriptor array = TypeDescriptor.parse("[[Ljava/lang/String;");
+        assertSame(array, array.remap(MAPPER));
+    }
+
+    @Test
+    void testSharedSubtrees() {
+        MethodDescriptor method = MethodDescriptor.parse("(Ljava/lang/String;La/B;)[La/B;");
+        MethodDescriptor mapped = method.remap(MAPPER);
+
+        assertEquals("(Ljava/lang/String;Lx/Y;)[Lx/Y;", mapped.toString());
+        assertSame(method.parameter(0), mapped.parameter(0));
+        assertEquals("(Ljava/lang/String;La/B;)[La/B;", method.toString());
+    }
+
+    @Test
+    void testRemapDescriptor() {
+        String method = "(Ljava/lang/String;[La/B;I)La/B;";
+        assertEquals("(Ljava/lang/String;[Lx/Y;I)Lx/Y;", Descriptor.remapDescriptor(method, MAPPER));
+        assertEquals("[[Lx/Y;", Descriptor.remapDescriptor(new StringBuilder("[[La/B;"), MAPPER));
+
+        String unchanged = "(Ljava/lang/String;[[I)V";
+        assertSame(unchanged, Descriptor.remapDescriptor(unchanged, MAPPER));
+
+        assertThrows(DescriptorFormatException.class, () -> Descriptor.remapDescriptor("(La/B)V", MAPPER));
+        assertThrows(DescriptorFormatException.class, () -> Descriptor.remapDescriptor("(V)V", MAPPER));
+        assertThrows(DescriptorFormatException.class, () -> Descriptor.remapDescriptor("La/B;I", MAPPER));
+        assertThrows(DescriptorFormatException.class, () -> Descriptor.remapDescriptor("", MAPPER));
+    }
+}
@@ -0,0 +1,122 @@
+package net.shadew.asm.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableMapperTest {
+    private static TableMapper obfToIntermediary() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("a", "class_1");
+        builder.visitClass("b", "class_2");
+        builder.visitMethod("a", "a", "(Lb;)La;", "method_1");
+        builder.visitField("a", "b", "Lb;", "field_1");
+        return builder.build();
+    }
+
+    private static TableMapper intermediaryToNamed() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("class_1", "net/Entity");
+        builder.visitClass("class_3", "net/World");
+        builder.visitMethod("class_1", "method_1", "(Lclass_2;)Lclass_1;", "copy");
+        builder.visitMethod("class_1", "method_2", "()V", "tick");
+        builder.visitField("class_1", "field_1", "Lclass_2;", "world");
+        return builder.build();
+    }
+
+    @Test
+    void testCompose() {
+        TableMapper first = obfToIntermediary();
+        TableMapper second = intermediaryToNamed();
+        TableMapper flat = first.andThen(second);
+        Mapper chained = name -> second.remap(first.remap(name));
+
+        for (String name : new String[] {"a", "b", "c", "class_1", "class_3", "java/lang/Object"}) {
+            assertEquals(chained.remap(name), flat.remap(name), name);
+        }
+        assertEquals("net/Entity", flat.remap("a"));
+        assertEquals("class_2", flat.remap("b"));
+        assertEquals("copy", flat.mapMethod("a", "a", "(Lb;)La;"));
+        assertEquals("world", flat.mapField("a", "b", "Lb;"));
+        assertEquals("tick", flat.mapMethod("a", "method_2", "()V"));
+
+        assertSame(TableMapper.class, first.andThen((Mapper) second).getClass());
+        Mapper lazy = new CachingMapper(first.andThen((Mapper) name -> name.toUpperCase()));
+        assertEquals("CLASS_1", lazy.remap("a"));
+        assertEquals("CLASS_1", lazy.remap("a"));
+    }
+
+    @Test
+    void testComposeMembers() {
+        TableMapper first = obfToIntermediary();
+        TableMapper.Builder builder = TableMapper.builder();
+        // 'c' and 'class_2' pass through the first table unchanged, but 'class_2' is also the target of 'b'
+        builder.visitMethod("c", "run", "()V", "execute");
+        builder.visitField("class_2", "size", "I", "count");
+        builder.visitMethod("class_2", "get", "(Lclass_1;)V", "fetch");
+        builder.visitMethod("class_1", "method_2", "()V", "tick");
+        TableMapper second = builder.build();
+        TableMapper flat = first.andThen(second);
+
+        String[][] methods = {
+            {"c", "run", "()V"},
+            {"b", "get", "(La;)V"},
+            {"class_2", "get", "(La;)V"},
+            {"a", "a", "(Lb;)La;"},
+            {"a", "method_2", "()V"},
+            {"class_1", "method_2", "()V"},
+        };
+        for (String[] m : methods) {
+            String chained = second.mapMethod(first.remap(m[0]), first.mapMethod(m[0], m[1], m[2]),
+                                              Descriptor.remapDescriptor(m[2], first));
+            assertEquals(chained, flat.mapMethod(m[0], m[1], m[2]), String.join(" ", m));
+        }
+        for (String owner : new String[] {"b", "class_2", "a"}) {
+            String chained = second.mapField(first.remap(owner), first.mapField(owner, "size", "I"), "I");
+            assertEquals(chained, flat.mapField(owner, "size", "I"), owner);
+        }
+
+        assertEquals("execute", flat.mapMethod("c", "run", "()V"));
+        assertEquals("count", flat.mapField("b", "size", "I"));
+        assertEquals("count", flat.mapField("class_2", "size", "I"));
+        assertEquals("fetch", flat.mapMethod("class_2", "get", "(La;)V"));
+        assertEquals("tick", flat.mapMethod("class_1", "method_2", "()V"));
+    }
+
+    @Test
+    void testInverse() {
+        TableMapper mapper = obfToIntermediary();
+        TableMapper inverse = mapper.inverse();
+        assertEquals("a", inverse.remap("class_1"));
+        assertEquals("b", inverse.remap("class_2"));
+        assertEquals("a", inverse.mapMethod("class_1", "method_1", "(Lclass_2;)Lclass_1;"));
+        assertEquals("b", inverse.mapField("class_1", "field_1", "Lclass_2;"));
+
+        TableMapper twice = inverse.inverse();
+        assertEquals("class_1", twice.remap("a"));
+        assertEquals("method_1", twice.mapMethod("a", "a", "(Lb;)La;"));
+
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("a", "x");
+        builder.visitClass("b", "x");
+        TableMapper conflicting = builder.build();
+        assertThrows(MappingConflictException.class, conflicting::inverse);
+    }
+
+    @Test
+    void testMerge() {
+        TableMapper.Builder builder = TableMapper.builder();
+        builder.visitClass("c", "class_3");
+        builder.visitClass("a", "class_1");
+        builder.visitMethod("c", "a", "()V", "method_3");
+        TableMapper merged = obfToIntermediary().merge(builder.build());
+        assertEquals(3, merged.size());
+        assertEquals(3, merged.memberCount());
+        assertEquals("class_3", merged.remap("c"));
+        assertEquals("method_3", merged.mapMethod("c", "a", "()V"));
+
+        TableMapper.Builder conflict = TableMapper.builder();
+        conflict.visitClass("a", "class_9");
+        assertThrows(MappingConflictException.class, () -> obfToIntermediary().merge(conflict.build()));
+    }
+}